@@ -0,0 +1,392 @@
+#!/bin/bash
+
+# ========================================
+# WorkCheck 性能基准脚本
+# 用法: ./benchmark.sh <命令> [参数...]
+# ========================================
+
+# 颜色定义
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+PURPLE='\033[0;35m'
+NC='\033[0m' # No Color
+
+ITERATIONS=${ITERATIONS:-10}
+JAR_FILE="target/workcheck-backend-1.0.0.jar"
+EMBEDDED_PID_FILE="embedded-bench.pid"
+CDS_ARCHIVE="target/cds/app.jsa"
+BASE_URL=${BASE_URL:-http://localhost:8080/workcheck}
+
+print_header() {
+    echo -e "${BLUE}============================================${NC}"
+    echo -e "${BLUE}           WorkCheck 性能基准${NC}"
+    echo -e "${BLUE}============================================${NC}"
+}
+
+print_info() {
+    echo -e "${GREEN}[INFO]${NC} $1"
+}
+
+print_warn() {
+    echo -e "${YELLOW}[WARN]${NC} $1"
+}
+
+print_error() {
+    echo -e "${RED}[ERROR]${NC} $1"
+}
+
+print_step() {
+    echo -e "${PURPLE}[STEP]${NC} $1"
+}
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# 重复执行命令，输出平均耗时（毫秒）
+time_avg() {
+    local label=$1
+    shift
+    local start end total=0
+    for ((i = 0; i < ITERATIONS; i++)); do
+        start=$(now_ms)
+        "$@" > /dev/null 2>&1
+        end=$(now_ms)
+        total=$((total + end - start))
+    done
+    printf "  %8d ms  %s\n" $((total / ITERATIONS)) "$label"
+}
+
+# 文件历史查询：全量扫描 / 路径过滤 / 路径过滤 + commit-graph Bloom 过滤器
+bench_git_history() {
+    local repo=$1
+    local file=$2
+    local since=${3:-1970-01-01}
+
+    if [ -z "$repo" ] || [ -z "$file" ]; then
+        print_error "用法: $0 git-history <仓库路径> <文件路径> [起始日期]"
+        exit 1
+    fi
+    if [ ! -d "$repo/.git" ]; then
+        print_error "不是Git仓库: $repo"
+        exit 1
+    fi
+
+    local log_args=(log "--since=$since" "--pretty=format:%H|%an|%ad|%s" --date=short --numstat)
+    local commit_count
+    commit_count=$(git -C "$repo" rev-list --count HEAD)
+    print_step "仓库: $repo（$commit_count 个提交），文件: $file，每项执行 $ITERATIONS 次"
+
+    print_info "未使用 commit-graph"
+    time_avg "全量扫描 + 应用内匹配" git -C "$repo" -c core.commitGraph=false "${log_args[@]}"
+    time_avg "路径过滤" git -C "$repo" -c core.commitGraph=false "${log_args[@]}" --full-diff -- ":(literal)$file"
+
+    print_step "写入 commit-graph（--changed-paths）..."
+    local start end
+    start=$(now_ms)
+    git -C "$repo" commit-graph write --reachable --changed-paths --split > /dev/null 2>&1
+    end=$(now_ms)
+    print_info "写入耗时 $((end - start)) ms"
+
+    print_info "使用 commit-graph + Bloom 过滤器"
+    time_avg "全量扫描 + 应用内匹配" git -C "$repo" "${log_args[@]}"
+    time_avg "路径过滤" git -C "$repo" "${log_args[@]}" --full-diff -- ":(literal)$file"
+}
+
+# 响应传输字节数：未压缩 / gzip / If-None-Match 命中（304）
+bench_wire_bytes() {
+    local url=$1
+
+    if [ -z "$url" ]; then
+        print_error "用法: $0 wire-bytes <接口URL>"
+        exit 1
+    fi
+
+    local plain gzip etag status not_modified
+    plain=$(curl -s -o /dev/null -w '%{size_download}' "$url")
+    gzip=$(curl -s -o /dev/null -w '%{size_download}' -H 'Accept-Encoding: gzip' "$url")
+    etag=$(curl -s -o /dev/null -D - -H 'Accept-Encoding: gzip' "$url" | grep -i '^etag:' | cut -d' ' -f2- | tr -d '\r')
+
+    print_step "接口: $url"
+    printf "  %8d B   %s\n" "$plain" "未压缩"
+    printf "  %8d B   %s\n" "$gzip" "gzip"
+    if [ "$plain" -gt 0 ]; then
+        print_info "gzip 节省 $(( (plain - gzip) * 100 / plain ))%"
+    fi
+
+    if [ -z "$etag" ]; then
+        print_warn "响应没有 ETag"
+        return
+    fi
+    status=$(curl -s -o /dev/null -w '%{http_code}' -H 'Accept-Encoding: gzip' -H "If-None-Match: $etag" "$url")
+    not_modified=$(curl -s -o /dev/null -w '%{size_download}' -H 'Accept-Encoding: gzip' -H "If-None-Match: $etag" "$url")
+    printf "  %8d B   %s\n" "$not_modified" "If-None-Match: $etag（HTTP $status）"
+
+    print_info "耗时（每项执行 $ITERATIONS 次）"
+    time_avg "完整响应" curl -s -H 'Accept-Encoding: gzip' "$url"
+    time_avg "304 响应" curl -s -H 'Accept-Encoding: gzip' -H "If-None-Match: $etag" "$url"
+}
+
+# 使用内嵌数据库（H2）启动/停止服务，基准测试不需要 MySQL
+bench_embedded() {
+    local action=$1
+    local data_dir=${2:-data/h2-bench}
+
+    case "$action" in
+        start)
+            if [ ! -f "$JAR_FILE" ]; then
+                print_step "编译打包项目..."
+                mvn -q clean package -DskipTests || exit 1
+            fi
+            mkdir -p logs
+            local start end
+            start=$(now_ms)
+            nohup java -jar "$JAR_FILE" --spring.profiles.active=embedded \
+                --workcheck.embedded.dir="$data_dir" > logs/embedded-bench.log 2>&1 &
+            echo $! > "$EMBEDDED_PID_FILE"
+            for ((i = 0; i < 600; i++)); do
+                if curl -s -o /dev/null "$BASE_URL/api/health"; then
+                    end=$(now_ms)
+                    print_info "服务已启动（PID $(cat "$EMBEDDED_PID_FILE")，数据目录 $data_dir），耗时 $((end - start)) ms"
+                    return
+                fi
+                if ! ps -p "$(cat "$EMBEDDED_PID_FILE")" > /dev/null; then
+                    break
+                fi
+                sleep 0.2
+            done
+            print_error "服务启动失败，请查看 logs/embedded-bench.log"
+            exit 1
+            ;;
+        stop)
+            if [ -f "$EMBEDDED_PID_FILE" ]; then
+                kill "$(cat "$EMBEDDED_PID_FILE")" 2>/dev/null
+                rm -f "$EMBEDDED_PID_FILE"
+                print_info "服务已停止"
+            else
+                print_warn "没有运行中的内嵌数据库服务"
+            fi
+            ;;
+        *)
+            print_error "用法: $0 embedded <start|stop> [数据目录]"
+            exit 1
+            ;;
+    esac
+}
+
+# 冷启动耗时：重复启动服务（默认内嵌数据库 + fast 配置），读取 /api/health 中的 startup.readyMs（JVM 启动到就绪）
+# 有 CDS 归档（mvn -Pcds package）时使用归档启动；结果追加到 logs/startup-history.csv，平均耗时超过预算时返回非0
+bench_startup() {
+    local runs=${1:-5}
+    local profiles=${2:-embedded,fast}
+    local budget=${STARTUP_BUDGET_MS:-10000}
+
+    if [ ! -f "$JAR_FILE" ]; then
+        print_step "编译打包项目..."
+        mvn -q clean package -DskipTests || exit 1
+    fi
+    if curl -s -o /dev/null "$BASE_URL/api/health"; then
+        print_error "$BASE_URL 已有服务在运行，请先停止"
+        exit 1
+    fi
+
+    local launch=(java -jar "$JAR_FILE")
+    local mode="jar"
+    if [ -f "$CDS_ARCHIVE" ]; then
+        launch=(java "-XX:SharedArchiveFile=$CDS_ARCHIVE" @target/cds/app.args com.workcheck.WorkCheckApplication)
+        mode="cds"
+    fi
+    mkdir -p logs
+    print_step "启动 $runs 次（$mode，配置 $profiles），预算 $budget ms"
+
+    local total=0 min=0 max=0 count=0
+    local run pid ready data_dir
+    for ((run = 1; run <= runs; run++)); do
+        data_dir=$(mktemp -d)
+        "${launch[@]}" --spring.profiles.active="$profiles" \
+            --workcheck.embedded.dir="$data_dir/h2" \
+            --workcheck.search.index-dir="$data_dir/search-index" \
+            --workcheck.save.write-behind.journal-dir="$data_dir/save-journal" > logs/startup-bench.log 2>&1 &
+        pid=$!
+        ready=""
+        for ((i = 0; i < 600; i++)); do
+            # 就绪前 readyMs 为 -1，匹配不到数字
+            ready=$(curl -s "$BASE_URL/api/health" | grep -o '"readyMs":[0-9]*' | cut -d: -f2)
+            if [ -n "$ready" ] || ! ps -p $pid > /dev/null; then
+                break
+            fi
+            sleep 0.2
+        done
+        kill $pid 2>/dev/null
+        wait $pid 2>/dev/null
+        rm -rf "$data_dir"
+
+        if [ -z "$ready" ]; then
+            print_error "第 $run 次启动失败，请查看 logs/startup-bench.log"
+            exit 1
+        fi
+        printf "  %8d ms  第 %d 次\n" "$ready" "$run"
+        total=$((total + ready))
+        count=$((count + 1))
+        if [ $min -eq 0 ] || [ "$ready" -lt $min ]; then
+            min=$ready
+        fi
+        if [ "$ready" -gt $max ]; then
+            max=$ready
+        fi
+    done
+
+    local avg=$((total / count))
+    print_info "最短 $min ms，平均 $avg ms，最长 $max ms"
+
+    local history="logs/startup-history.csv"
+    if [ ! -f "$history" ]; then
+        echo "time,commit,mode,profiles,runs,min_ms,avg_ms,max_ms,budget_ms" > "$history"
+    fi
+    echo "$(date '+%Y-%m-%d %H:%M:%S'),$(git rev-parse --short HEAD 2>/dev/null),$mode,$profiles,$count,$min,$avg,$max,$budget" >> "$history"
+
+    if [ $avg -gt "$budget" ]; then
+        print_error "平均启动耗时超过预算 $budget ms"
+        exit 1
+    fi
+    print_info "在预算内（$budget ms），记录见 $history"
+}
+
+# 并发 git 请求吞吐：内嵌数据库启动两次（平台线程池 / 虚拟线程），并发请求 /api/git/commits（每次执行 git log）
+# 虚拟线程需要 Java 21，可用 JAVA21 指定 java 路径
+bench_threads() {
+    local repo=$1
+    local user=$2
+    local month=${3:-$(date +%Y-%m)}
+    local concurrency=${CONCURRENCY:-200}
+    local requests=${REQUESTS:-2000}
+    local java21=${JAVA21:-java}
+
+    if [ -z "$repo" ] || [ -z "$user" ]; then
+        print_error "用法: $0 threads <仓库路径> <提交人> [月份]"
+        exit 1
+    fi
+    if [ ! -d "$repo/.git" ]; then
+        print_error "不是Git仓库: $repo"
+        exit 1
+    fi
+    local major
+    major=$("$java21" -version 2>&1 | head -n 1 | awk -F '"' '{print $2}' | cut -d'.' -f1)
+    if [ "$major" -lt 21 ]; then
+        print_error "虚拟线程需要 Java 21，当前 $java21 为 Java $major，请用 JAVA21=<java路径> 指定"
+        exit 1
+    fi
+    if [ ! -f "$JAR_FILE" ]; then
+        print_step "编译打包项目..."
+        mvn -q clean package -DskipTests || exit 1
+    fi
+    if curl -s -o /dev/null "$BASE_URL/api/health"; then
+        print_error "$BASE_URL 已有服务在运行，请先停止"
+        exit 1
+    fi
+
+    local url="$BASE_URL/api/git/commits?userName=$user&month=$month&projectPath=$repo"
+    print_step "仓库: $repo，并发 $concurrency，请求 $requests 次（Java $major）"
+    mkdir -p logs
+
+    local mode profiles pid data_dir start end failed
+    for mode in platform virtual; do
+        profiles="embedded"
+        if [ "$mode" = "virtual" ]; then
+            profiles="embedded,java21"
+        fi
+        data_dir=$(mktemp -d)
+        "$java21" -jar "$JAR_FILE" --spring.profiles.active="$profiles" \
+            --workcheck.embedded.dir="$data_dir/h2" \
+            --workcheck.search.index-dir="$data_dir/search-index" > "logs/threads-bench-$mode.log" 2>&1 &
+        pid=$!
+        for ((i = 0; i < 600; i++)); do
+            if curl -s -o /dev/null "$BASE_URL/api/health" || ! ps -p $pid > /dev/null; then
+                break
+            fi
+            sleep 0.2
+        done
+
+        # 预热
+        seq 50 | xargs -P 10 -I{} curl -s -o /dev/null "$url"
+        start=$(now_ms)
+        failed=$(seq "$requests" | xargs -P "$concurrency" -I{} curl -s -o /dev/null -w '%{http_code}\n' "$url" | grep -vc '^200$')
+        end=$(now_ms)
+
+        kill $pid 2>/dev/null
+        wait $pid 2>/dev/null
+        rm -rf "$data_dir"
+
+        printf "  %-9s %8d ms  %8d 请求/秒  失败 %d\n" "$mode" $((end - start)) \
+            $((requests * 1000 / (end - start > 0 ? end - start : 1))) "$failed"
+    done
+}
+
+# JSON序列化耗时：任务列表响应（默认 1000 个任务）
+# HashMap 响应 / 响应类 / 响应类 + 字节码模块（afterburner 或 blackbird）/ 直接写入输出流
+bench_json() {
+    local tasks=${1:-1000}
+    local rounds=${2:-500}
+    local module=${3:-auto}
+
+    print_step "编译项目..."
+    mvn -q compile || exit 1
+    local cp_file="target/json-bench.classpath"
+    mvn -q dependency:build-classpath -Dmdep.outputFile="$cp_file" > /dev/null || exit 1
+
+    print_step "序列化 $tasks 个任务，每项 5 轮、每轮 $rounds 次，取最快一轮（模块 $module）"
+    java -cp "target/classes:$(cat "$cp_file")" com.workcheck.config.JsonBenchmark "$tasks" "$rounds" "$module"
+}
+
+show_help() {
+    echo "用法: $0 <命令> [参数...]"
+    echo ""
+    echo "命令:"
+    echo "  git-history <仓库路径> <文件路径> [起始日期]   文件历史查询耗时（commit-graph 前后对比）"
+    echo "  wire-bytes <接口URL>                         响应传输字节数（未压缩 / gzip / 304）"
+    echo "  embedded <start|stop> [数据目录]             使用内嵌数据库（H2）启动/停止服务，不需要 MySQL"
+    echo "  startup [次数] [配置]                        冷启动耗时（默认 5 次，embedded,fast），超过预算返回非0"
+    echo "  threads <仓库路径> <提交人> [月份]           并发 git 请求吞吐（平台线程池 / 虚拟线程，需要 Java 21）"
+    echo "  json [任务数] [每轮次数] [模块]              任务列表JSON序列化耗时（默认 1000 个任务，模块 auto/afterburner/blackbird/none）"
+    echo ""
+    echo "环境变量:"
+    echo "  ITERATIONS   每项重复次数（默认 10）"
+    echo "  BASE_URL     服务地址（默认 http://localhost:8080/workcheck）"
+    echo "  STARTUP_BUDGET_MS  启动耗时预算（默认 10000）"
+    echo "  CONCURRENCY  threads 并发请求数（默认 200）"
+    echo "  REQUESTS     threads 总请求数（默认 2000）"
+    echo "  JAVA21       threads 使用的 java 路径（默认 java）"
+}
+
+print_header
+case "$1" in
+    git-history)
+        shift
+        bench_git_history "$@"
+        ;;
+    wire-bytes)
+        shift
+        bench_wire_bytes "$@"
+        ;;
+    embedded)
+        shift
+        bench_embedded "$@"
+        ;;
+    startup)
+        shift
+        bench_startup "$@"
+        ;;
+    threads)
+        shift
+        bench_threads "$@"
+        ;;
+    json)
+        shift
+        bench_json "$@"
+        ;;
+    *)
+        show_help
+        ;;
+esac
@@ -165,7 +165,7 @@ show_stats() {
             '已完成检查项',
             COUNT(*)
         FROM task_checks
-        WHERE status = '完成'
+        WHERE done = TRUE OR status = '完成'
         UNION ALL
         SELECT
             '检查项模板数',
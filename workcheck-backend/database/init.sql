@@ -33,8 +33,8 @@ INSERT INTO task_files (task_id, file_path, test_status) VALUES
 (3, '/src/sql/order.sql', '已完成');
 
 -- 为任务添加检查项状态
-INSERT INTO task_checks (task_id, check_item, status, sort_order)
-SELECT t.id, cti.item_text, CASE WHEN t.id = 1 THEN '完成' WHEN t.id = 2 THEN '未完成' ELSE '完成' END, cti.sort_order
+INSERT INTO task_checks (task_id, template_item_id, done, sort_order)
+SELECT t.id, cti.id, CASE WHEN t.id = 2 THEN FALSE ELSE TRUE END, cti.sort_order
 FROM tasks t
 CROSS JOIN check_template_items cti
 WHERE cti.template_id = 1
@@ -51,7 +51,7 @@ JOIN tasks t ON tf.task_id = t.id;
 
 SELECT '\n检查项统计：' as info;
 SELECT t.task_id, COUNT(*) as total_checks,
-       SUM(CASE WHEN tc.status = '完成' THEN 1 ELSE 0 END) as completed_checks
+       SUM(CASE WHEN tc.done = TRUE OR tc.status = '完成' THEN 1 ELSE 0 END) as completed_checks
 FROM tasks t
 LEFT JOIN task_checks tc ON t.id = tc.task_id
 GROUP BY t.id, t.task_id;
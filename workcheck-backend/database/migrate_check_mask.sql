@@ -0,0 +1,11 @@
+-- ========================================
+-- 任务检查项位图存储
+-- 启用 workcheck.checks.storage=bitmask 前执行一次：mysql -u root -p workcheck < migrate_check_mask.sql
+-- 已按行保存的检查项不需要转换，任务下次保存时自动改为位图
+-- ========================================
+
+USE workcheck;
+
+ALTER TABLE tasks
+    ADD COLUMN check_mask BIGINT COMMENT '检查项完成位图(位图存储模式，NULL表示检查项保存在task_checks)' AFTER version,
+    ADD COLUMN check_template_version INT COMMENT '位图对应的检查项模板版本' AFTER check_mask;
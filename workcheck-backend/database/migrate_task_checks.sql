@@ -0,0 +1,45 @@
+-- ========================================
+-- 任务检查项改为引用模板检查项
+-- 升级时执行一次：mysql -u root -p workcheck < migrate_task_checks.sql
+-- 默认模板中的检查项只保留检查项ID和完成标记，自定义检查项保持原样
+-- ========================================
+
+USE workcheck;
+
+-- 1. 模板版本
+ALTER TABLE check_templates
+    ADD COLUMN version INT NOT NULL DEFAULT 1 COMMENT '模板版本(检查项增删或调整顺序时递增)' AFTER is_default;
+
+ALTER TABLE check_template_items
+    ADD COLUMN since_version INT NOT NULL DEFAULT 1 COMMENT '加入模板的版本' AFTER sort_order,
+    ADD COLUMN retired_version INT COMMENT '停用的版本(NULL表示启用中，停用的检查项保留供历史任务解析文本)' AFTER since_version;
+
+-- 2. 任务检查项引用模板检查项
+ALTER TABLE task_checks
+    ADD COLUMN template_item_id BIGINT COMMENT '模板检查项ID(check_template_items.id)' AFTER task_id,
+    ADD COLUMN done BOOLEAN COMMENT '是否完成(引用模板检查项时使用)' AFTER template_item_id,
+    MODIFY COLUMN check_item VARCHAR(200) COMMENT '检查项内容(仅自定义检查项)',
+    MODIFY COLUMN status VARCHAR(20) COMMENT '状态(完成/未完成，仅自定义检查项)';
+
+-- 3. 转换已有数据：文本与默认模板检查项一致、状态为完成/未完成的行
+UPDATE task_checks tc
+JOIN check_template_items cti ON cti.item_text = tc.check_item AND cti.retired_version IS NULL
+JOIN check_templates ct ON ct.id = cti.template_id AND ct.is_default = TRUE
+SET tc.template_item_id = cti.id,
+    tc.done = (tc.status = '完成'),
+    tc.check_item = NULL,
+    tc.status = NULL
+WHERE tc.template_item_id IS NULL
+  AND tc.status IN ('完成', '未完成');
+
+-- 4. 状态不再按字符串查询
+ALTER TABLE task_checks DROP INDEX idx_status;
+
+-- 5. 回收空间
+OPTIMIZE TABLE task_checks;
+
+-- 转换结果
+SELECT
+    SUM(template_item_id IS NOT NULL) AS template_checks,
+    SUM(template_item_id IS NULL) AS custom_checks
+FROM task_checks;
@@ -19,6 +19,7 @@ CREATE TABLE IF NOT EXISTS check_templates (
     name VARCHAR(100) NOT NULL COMMENT '模板名称',
     description VARCHAR(500) COMMENT '模板描述',
     is_default BOOLEAN DEFAULT FALSE COMMENT '是否默认模板',
+    version INT NOT NULL DEFAULT 1 COMMENT '模板版本(检查项增删或调整顺序时递增)',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     INDEX idx_is_default (is_default),
@@ -33,6 +34,8 @@ CREATE TABLE IF NOT EXISTS check_template_items (
     template_id BIGINT NOT NULL COMMENT '模板ID',
     item_text VARCHAR(200) NOT NULL COMMENT '检查项内容',
     sort_order INT NOT NULL DEFAULT 0 COMMENT '排序顺序',
+    since_version INT NOT NULL DEFAULT 1 COMMENT '加入模板的版本',
+    retired_version INT COMMENT '停用的版本(NULL表示启用中，停用的检查项保留供历史任务解析文本)',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     FOREIGN KEY (template_id) REFERENCES check_templates(id) ON DELETE CASCADE,
     INDEX idx_template_sort (template_id, sort_order)
@@ -48,10 +51,14 @@ CREATE TABLE IF NOT EXISTS tasks (
     risk VARCHAR(20) COMMENT '风险等级',
     user_name VARCHAR(100) NOT NULL COMMENT '用户名',
     month VARCHAR(10) NOT NULL COMMENT '月份(YYYY-MM)',
+    version BIGINT NOT NULL DEFAULT 0 COMMENT '变更版本号(同一用户月份内递增)',
+    check_mask BIGINT COMMENT '检查项完成位图(位图存储模式，NULL表示检查项保存在task_checks)',
+    check_template_version INT COMMENT '位图对应的检查项模板版本',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     UNIQUE KEY uk_task (user_name, month, task_id),
     INDEX idx_user_month (user_name, month),
+    INDEX idx_user_month_version (user_name, month, version),
     INDEX idx_task_id (task_id),
     INDEX idx_created_at (created_at)
 ) ENGINE=InnoDB COMMENT='任务主表';
@@ -64,10 +71,12 @@ CREATE TABLE IF NOT EXISTS task_files (
     task_id BIGINT NOT NULL COMMENT '任务ID',
     file_path TEXT COMMENT '文件路径',
     test_status VARCHAR(100) COMMENT '测试状态',
+    path_id BIGINT COMMENT '路径字典ID(file_paths.id)',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE,
-    INDEX idx_task (task_id)
+    INDEX idx_task (task_id),
+    INDEX idx_path_id (path_id)
 ) ENGINE=InnoDB COMMENT='任务文件表';
 
 -- ========================================
@@ -76,16 +85,112 @@ CREATE TABLE IF NOT EXISTS task_files (
 CREATE TABLE IF NOT EXISTS task_checks (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     task_id BIGINT NOT NULL COMMENT '任务ID',
-    check_item VARCHAR(200) NOT NULL COMMENT '检查项内容',
-    status VARCHAR(20) NOT NULL DEFAULT '未完成' COMMENT '状态(完成/未完成)',
+    template_item_id BIGINT COMMENT '模板检查项ID(check_template_items.id)',
+    done BOOLEAN COMMENT '是否完成(引用模板检查项时使用)',
+    check_item VARCHAR(200) COMMENT '检查项内容(仅自定义检查项)',
+    status VARCHAR(20) COMMENT '状态(完成/未完成，仅自定义检查项)',
     sort_order INT NOT NULL DEFAULT 0 COMMENT '排序顺序',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE,
-    INDEX idx_task_sort (task_id, sort_order),
-    INDEX idx_status (status)
+    INDEX idx_task_sort (task_id, sort_order)
 ) ENGINE=InnoDB COMMENT='任务检查项表';
 
+-- ========================================
+-- 6. Git仓库登记表
+-- ========================================
+CREATE TABLE IF NOT EXISTS git_repositories (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL COMMENT '仓库名称',
+    path VARCHAR(500) NOT NULL COMMENT '仓库规范路径',
+    remote_url VARCHAR(500) COMMENT '远程地址',
+    default_branch VARCHAR(100) COMMENT '默认分支',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    UNIQUE KEY uk_path (path)
+) ENGINE=InnoDB COMMENT='Git仓库登记表';
+
+-- ========================================
+-- 7. 任务墓碑表
+-- ========================================
+CREATE TABLE IF NOT EXISTS task_tombstones (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_name VARCHAR(100) NOT NULL COMMENT '用户名',
+    month VARCHAR(10) NOT NULL COMMENT '月份(YYYY-MM)',
+    task_id VARCHAR(50) NOT NULL COMMENT '任务编号',
+    version BIGINT NOT NULL COMMENT '删除时的版本号',
+    deleted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '删除时间',
+    UNIQUE KEY uk_tombstone (user_name, month, task_id),
+    INDEX idx_user_month_version (user_name, month, version)
+) ENGINE=InnoDB COMMENT='任务墓碑表';
+
+-- ========================================
+-- 8. 文件路径字典表
+-- ========================================
+CREATE TABLE IF NOT EXISTS file_paths (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    path_hash CHAR(32) NOT NULL COMMENT '规范化路径的MD5',
+    path VARCHAR(1000) NOT NULL COMMENT '规范化路径(分隔符统一为/，不含开头的/)',
+    UNIQUE KEY uk_path_hash (path_hash),
+    INDEX idx_path_prefix (path(255))
+) ENGINE=InnoDB COMMENT='文件路径字典表';
+
+-- ========================================
+-- 9. 归档月份表
+-- ========================================
+CREATE TABLE IF NOT EXISTS archived_months (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_name VARCHAR(100) NOT NULL COMMENT '用户名',
+    month VARCHAR(10) NOT NULL COMMENT '月份(YYYY-MM)',
+    version BIGINT NOT NULL DEFAULT 0 COMMENT '归档时的版本号',
+    task_count INT NOT NULL DEFAULT 0 COMMENT '任务数',
+    raw_bytes INT NOT NULL DEFAULT 0 COMMENT '压缩前的JSON字节数',
+    stored_bytes INT NOT NULL DEFAULT 0 COMMENT '压缩后的字节数',
+    payload LONGBLOB NOT NULL COMMENT '任务列表JSON(gzip压缩)',
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '归档时间',
+    UNIQUE KEY uk_archived_month (user_name, month)
+) ENGINE=InnoDB COMMENT='归档月份表';
+
+-- ========================================
+-- 10. 归档月份文件表
+-- ========================================
+CREATE TABLE IF NOT EXISTS archived_month_paths (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    archive_id BIGINT NOT NULL COMMENT '归档ID',
+    path_id BIGINT NOT NULL COMMENT '路径字典ID(file_paths.id)',
+    FOREIGN KEY (archive_id) REFERENCES archived_months(id) ON DELETE CASCADE,
+    INDEX idx_archived_path_id (path_id)
+) ENGINE=InnoDB COMMENT='归档月份文件表';
+
+-- ========================================
+-- 11. 任务变更日志表（只追加）
+-- ========================================
+CREATE TABLE IF NOT EXISTS task_change_log (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_name VARCHAR(100) NOT NULL COMMENT '用户名',
+    month VARCHAR(10) NOT NULL COMMENT '月份(YYYY-MM)',
+    version BIGINT NOT NULL COMMENT '保存后的版本号',
+    task_id VARCHAR(50) NOT NULL COMMENT '任务编号',
+    change_type VARCHAR(20) NOT NULL COMMENT '变更类型(created/updated/deleted/snapshot)',
+    operator VARCHAR(100) COMMENT '操作人',
+    client_id VARCHAR(100) COMMENT '发起保存的页面标识',
+    payload MEDIUMTEXT COMMENT '变更后的完整任务JSON(含文件和检查项，删除时为空)',
+    changed_at DATETIME(3) NOT NULL COMMENT '变更时间',
+    INDEX idx_log_user_month_time (user_name, month, changed_at),
+    INDEX idx_log_user_month_version (user_name, month, version)
+) ENGINE=InnoDB COMMENT='任务变更日志表';
+
+-- ========================================
+-- 12. 增量加载下限表
+-- ========================================
+CREATE TABLE IF NOT EXISTS task_delta_floors (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_name VARCHAR(100) NOT NULL COMMENT '用户名',
+    month VARCHAR(10) NOT NULL COMMENT '月份(YYYY-MM)',
+    version BIGINT NOT NULL COMMENT '早于该版本的增量加载返回完整列表',
+    UNIQUE KEY uk_delta_floor (user_name, month)
+) ENGINE=InnoDB COMMENT='增量加载下限表';
+
 -- ========================================
 -- 初始化数据
 -- ========================================
@@ -123,11 +228,19 @@ SELECT
     user_name,
     month,
     COUNT(*) as total_tasks,
-    COUNT(CASE WHEN status = '完成' THEN 1 END) as completed_checks,
+    SUM(completed) as completed_checks,
     COUNT(*) * 9 as total_checks,  -- 假设每个任务有9个检查项
-    ROUND(COUNT(CASE WHEN status = '完成' THEN 1 END) * 100.0 / (COUNT(*) * 9), 2) as completion_rate
-FROM tasks t
-LEFT JOIN task_checks tc ON t.id = tc.task_id
+    ROUND(SUM(completed) * 100.0 / (COUNT(*) * 9), 2) as completion_rate
+FROM (
+    -- 位图存储的任务用 BIT_COUNT 计数，按行存储的任务统计 task_checks
+    SELECT
+        t.user_name,
+        t.month,
+        IFNULL(BIT_COUNT(t.check_mask), 0)
+            + (SELECT COUNT(*) FROM task_checks tc
+               WHERE tc.task_id = t.id AND (tc.done = TRUE OR tc.status = '完成')) as completed
+    FROM tasks t
+) task_completion
 GROUP BY user_name, month;
 
 -- ========================================
@@ -144,6 +257,18 @@ BEGIN
 
     DELETE FROM tasks
     WHERE STR_TO_DATE(CONCAT(month, '-01'), '%Y-%m-%d') < cutoff_date;
+
+    DELETE FROM task_tombstones
+    WHERE STR_TO_DATE(CONCAT(month, '-01'), '%Y-%m-%d') < cutoff_date;
+
+    DELETE FROM archived_months
+    WHERE STR_TO_DATE(CONCAT(month, '-01'), '%Y-%m-%d') < cutoff_date;
+
+    DELETE FROM task_delta_floors
+    WHERE STR_TO_DATE(CONCAT(month, '-01'), '%Y-%m-%d') < cutoff_date;
+
+    DELETE FROM task_change_log
+    WHERE STR_TO_DATE(CONCAT(month, '-01'), '%Y-%m-%d') < cutoff_date;
 END //
 
 DELIMITER ;
@@ -171,7 +296,14 @@ DELIMITER ;
    - check_template_items: 检查项模板明细，存储具体的检查内容
    - tasks: 任务主表，存储任务基本信息
    - task_files: 任务文件表，一个任务可以关联多个文件
-   - task_checks: 任务检查项表，记录每个检查项的完成状态
+   - task_checks: 任务检查项表，记录每个检查项的完成状态；模板检查项只保存检查项ID和完成标记
+   - git_repositories: Git仓库登记表，各Git接口可按仓库ID访问
+   - task_tombstones: 任务墓碑表，记录已删除的任务，供增量加载使用
+   - file_paths: 文件路径字典表，task_files.path_id 引用，按文件或目录反查任务
+   - archived_months: 归档月份表，已关闭月份的任务列表压缩快照，热表只保留近期月份
+   - archived_month_paths: 归档月份文件表，按文件反查任务时定位归档快照
+   - task_change_log: 任务变更日志表，只追加，记录每次保存新增、修改、删除的任务及操作人
+   - task_delta_floors: 增量加载下限表，月份从归档恢复后没有归档前的墓碑，早于恢复时版本的增量加载返回完整列表
 
 4. 扩展说明：
    - 支持动态添加检查项：在 check_template_items 表中添加新记录
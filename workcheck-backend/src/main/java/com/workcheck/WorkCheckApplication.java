@@ -2,14 +2,22 @@ package com.workcheck;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaAuditing
+@EnableScheduling
 public class WorkCheckApplication {
     //新增项目
     public static void main(String[] args) {
-        SpringApplication.run(WorkCheckApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(WorkCheckApplication.class, args);
         System.out.println("启动成功日志打印");
+
+        // 生成CDS归档的训练运行（mvn -Pcds package）：启动完成后退出，JVM退出时写入已加载的类
+        if (context.getEnvironment().getProperty("workcheck.startup.exit-after-ready", Boolean.class, false)) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package com.workcheck.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JSON序列化加速（workcheck.json.bytecode-module）
+ * 为 DTO 的 getter/setter 生成访问器代替反射调用，任务列表、提交记录等大列表序列化更快：
+ * afterburner 生成字节码，适合 Java 8；blackbird 使用 LambdaMetafactory，适合 Java 11+（afterburner 在 Java 16+ 上无法生效）。
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Value("${workcheck.json.bytecode-module:auto}")
+    private String bytecodeModule;
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer bytecodeModuleCustomizer() {
+        Module module = createBytecodeModule(bytecodeModule);
+        if (module == null) {
+            return builder -> {
+            };
+        }
+        System.out.println("JSON序列化使用 " + module.getModuleName());
+        return builder -> builder.postConfigurer(objectMapper -> objectMapper.registerModule(module));
+    }
+
+    /**
+     * @param mode auto / afterburner / blackbird / none
+     * @return none 时返回 null
+     */
+    public static Module createBytecodeModule(String mode) {
+        switch (mode) {
+            case "none":
+                return null;
+            case "afterburner":
+                return new AfterburnerModule();
+            case "blackbird":
+                return new BlackbirdModule();
+            case "auto":
+                return isJava11OrLater() ? new BlackbirdModule() : new AfterburnerModule();
+            default:
+                throw new IllegalArgumentException("workcheck.json.bytecode-module 只能是 auto / afterburner / blackbird / none：" + mode);
+        }
+    }
+
+    private static boolean isJava11OrLater() {
+        String version = System.getProperty("java.specification.version");
+        // Java 8 为 "1.8"，Java 9 起为 "9"、"11"、"17"...
+        return !version.startsWith("1.") && Integer.parseInt(version) >= 11;
+    }
+}
@@ -0,0 +1,154 @@
+package com.workcheck.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.workcheck.dto.CheckDTO;
+import com.workcheck.dto.FileDTO;
+import com.workcheck.dto.TaskDTO;
+import com.workcheck.dto.TasksResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * JSON序列化基准（./benchmark.sh json）：/api/load 形式的任务列表响应
+ * 对比 HashMap 响应 / 响应类 / 响应类 + 字节码模块（workcheck.json.bytecode-module）/ 直接写入输出流，
+ * 参数：[任务数，默认 1000] [每轮次数，默认 500] [模块，默认 auto]
+ */
+public final class JsonBenchmark {
+
+    private static final int PASSES = 5;
+
+    private JsonBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        String mode = args.length > 2 ? args[2] : "auto";
+
+        List<TaskDTO> tasks = createTasks(taskCount);
+        Map<String, Object> mapResponse = new HashMap<>();
+        mapResponse.put("success", true);
+        mapResponse.put("tasks", tasks);
+        mapResponse.put("version", 42L);
+        TasksResponse typedResponse = new TasksResponse(tasks, 42L);
+
+        ObjectMapper plain = createObjectMapper();
+        ObjectMapper accelerated = createObjectMapper();
+        Module module = JacksonConfig.createBytecodeModule(mode);
+        String moduleName = module != null ? module.getModuleName() : "none";
+        if (module != null) {
+            accelerated.registerModule(module);
+        }
+        ObjectWriter streamWriter = accelerated.writerFor(TasksResponse.class);
+
+        System.out.println("Java " + System.getProperty("java.version") + ", tasks=" + taskCount
+                + ", rounds=" + rounds + ", module=" + moduleName
+                + ", bytes=" + plain.writeValueAsBytes(typedResponse).length);
+        Map<String, Serialization> scenarios = new LinkedHashMap<>();
+        scenarios.put("map envelope", () -> plain.writeValueAsBytes(mapResponse).length);
+        scenarios.put("typed envelope", () -> plain.writeValueAsBytes(typedResponse).length);
+        scenarios.put("typed + " + moduleName, () -> accelerated.writeValueAsBytes(typedResponse).length);
+        scenarios.put("typed + " + moduleName + " streaming", () -> {
+            CountingSink sink = new CountingSink();
+            streamWriter.writeValue(sink, typedResponse);
+            return (int) sink.count;
+        });
+
+        // 各项交替执行多轮，取最快一轮，减少JIT编译和GC时机带来的先后差异
+        Map<String, Double> best = new LinkedHashMap<>();
+        long checksum = 0;
+        for (int pass = 0; pass < PASSES; pass++) {
+            for (Map.Entry<String, Serialization> scenario : scenarios.entrySet()) {
+                long start = System.nanoTime();
+                for (int i = 0; i < rounds; i++) {
+                    checksum += scenario.getValue().write();
+                }
+                double perOpUs = (System.nanoTime() - start) / 1000.0 / rounds;
+                best.merge(scenario.getKey(), perOpUs, Math::min);
+            }
+        }
+        for (Map.Entry<String, Double> result : best.entrySet()) {
+            System.out.printf("  %-36s %10.1f us/op  %8.0f ops/s%n", result.getKey(), result.getValue(), 1000000.0 / result.getValue());
+        }
+        System.out.println("  checksum " + checksum);
+    }
+
+    private static ObjectMapper createObjectMapper() {
+        // 与 application.yml 中 spring.jackson 的日期配置一致
+        ObjectMapper objectMapper = new ObjectMapper();
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("GMT+8"));
+        objectMapper.setDateFormat(dateFormat);
+        return objectMapper;
+    }
+
+    private static List<TaskDTO> createTasks(int count) {
+        List<TaskDTO> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TaskDTO task = new TaskDTO();
+            task.setId((long) i);
+            task.setTaskId("TASK-" + (10000 + i));
+            task.setChange("修改订单查询接口，增加按状态过滤 #" + i);
+            task.setRisk(i % 3 == 0 ? "高" : "低");
+            task.setUserName("bench");
+            task.setMonth("2024-01");
+            task.setVersion(42L);
+
+            List<FileDTO> files = new ArrayList<>();
+            for (int f = 0; f < 3; f++) {
+                FileDTO file = new FileDTO();
+                file.setId((long) (i * 3 + f));
+                file.setFile("src/main/java/com/example/order/OrderService" + f + ".java");
+                file.setTest("自测通过");
+                files.add(file);
+            }
+            task.setFiles(files);
+
+            List<CheckDTO> checks = new ArrayList<>();
+            for (int c = 0; c < 5; c++) {
+                CheckDTO check = new CheckDTO();
+                check.setId((long) (i * 5 + c));
+                check.setCheckItem("检查项" + c);
+                check.setStatus(c % 2 == 0 ? "是" : "否");
+                check.setSortOrder(c);
+                checks.add(check);
+            }
+            task.setChecks(checks);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    @FunctionalInterface
+    private interface Serialization {
+        int write() throws IOException;
+    }
+
+    /**
+     * 丢弃写入内容，只统计字节数（代替 HTTP 响应输出流）
+     */
+    private static class CountingSink extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
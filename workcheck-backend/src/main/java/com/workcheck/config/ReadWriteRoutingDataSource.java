@@ -0,0 +1,41 @@
+package com.workcheck.config;
+
+import com.workcheck.service.ReadReplicaRouting;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 按当前事务选择主库或读库，须包在 LazyConnectionDataSourceProxy 中使用：
+ * 事务开始时只读标记尚未设置，延迟到第一次执行SQL时再取连接才能路由到读库。
+ * 读库取不到连接时改用主库。
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String READ = "read";
+
+    private final ReadReplicaRouting routing;
+
+    public ReadWriteRoutingDataSource(ReadReplicaRouting routing) {
+        this.routing = routing;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return routing.useReplica() ? READ : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (READ.equals(determineCurrentLookupKey())) {
+            try {
+                return getResolvedDataSources().get(READ).getConnection();
+            } catch (SQLException e) {
+                routing.markReplicaFailed(e);
+            }
+        }
+        return getResolvedDataSources().get(PRIMARY).getConnection();
+    }
+}
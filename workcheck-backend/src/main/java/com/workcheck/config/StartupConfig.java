@@ -0,0 +1,39 @@
+package com.workcheck.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import javax.annotation.PostConstruct;
+import java.lang.annotation.Annotation;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 启动优化（fast 配置开启 spring.main.lazy-initialization）
+ * 懒加载时 Bean 在第一次使用时才创建，以下 Bean 仍在启动时创建：
+ * 含 @Scheduled 方法的（不创建就不会注册定时任务，如写后保存、归档、读库检查），
+ * 含 @PostConstruct 方法的（启动时打开索引、回放保存日志等）。
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return (beanName, beanDefinition, beanType) ->
+                hasMethodAnnotatedWith(beanType, Scheduled.class) || hasMethodAnnotatedWith(beanType, PostConstruct.class);
+    }
+
+    private static boolean hasMethodAnnotatedWith(Class<?> beanType, Class<? extends Annotation> annotation) {
+        if (beanType == null || !beanType.getName().startsWith("com.workcheck.")) {
+            return false;
+        }
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType,
+                method -> found.set(true),
+                method -> !found.get() && AnnotatedElementUtils.hasAnnotation(method, annotation));
+        return found.get();
+    }
+}
@@ -0,0 +1,77 @@
+package com.workcheck.config;
+
+import com.workcheck.service.TraceService;
+import com.workcheck.service.TraceSpan;
+import com.workcheck.service.Tracing;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.Repository;
+
+/**
+ * 请求跟踪：请求入口的过滤器，以及每次 Repository 方法调用的跨度
+ */
+@Configuration
+public class TraceConfig {
+
+    @Bean
+    public FilterRegistrationBean<TraceFilter> traceFilter(TraceService traceService) {
+        FilterRegistrationBean<TraceFilter> registration = new FilterRegistrationBean<>(new TraceFilter(traceService));
+        registration.addUrlPatterns("/api/*");
+        // 在其他过滤器之前开始跟踪，包含整个请求的耗时
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    /**
+     * 为 com.workcheck.repository 下的 Repository 加一层代理，采样的请求中每次调用记录一个跨度，
+     * 如 TaskRepository.findTasks；未在跟踪时直接调用
+     */
+    @Bean
+    public static BeanPostProcessor repositoryTracingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof Repository)) {
+                    return bean;
+                }
+                Class<?> repositoryInterface = findRepositoryInterface(bean.getClass());
+                if (repositoryInterface == null) {
+                    return bean;
+                }
+                String prefix = repositoryInterface.getSimpleName() + ".";
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.setInterfaces(repositoryInterface);
+                proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                    if (!Tracing.isActive()) {
+                        return invocation.proceed();
+                    }
+                    try (TraceSpan span = Tracing.startSpan(prefix + invocation.getMethod().getName(), TraceSpan.KIND_CLIENT)) {
+                        span.setAttribute("db.operation", invocation.getMethod().getName());
+                        try {
+                            return invocation.proceed();
+                        } catch (RuntimeException e) {
+                            span.setError(e.getMessage());
+                            throw e;
+                        }
+                    }
+                });
+                return proxyFactory.getProxy(repositoryInterface.getClassLoader());
+            }
+        };
+    }
+
+    private static Class<?> findRepositoryInterface(Class<?> type) {
+        for (Class<?> candidate : type.getInterfaces()) {
+            if (Repository.class.isAssignableFrom(candidate)
+                    && candidate.getName().startsWith("com.workcheck.repository.")) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
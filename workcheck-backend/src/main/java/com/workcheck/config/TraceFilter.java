@@ -0,0 +1,87 @@
+package com.workcheck.config;
+
+import com.workcheck.service.TraceService;
+import com.workcheck.service.TraceSpan;
+import com.workcheck.service.Tracing;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 请求跟踪入口：按采样率决定是否跟踪，跟踪的请求在处理线程上记录根跨度（方法、路由、状态码）
+ * 请求头带 traceparent 且采样标记为 01 时总是跟踪，并沿用其中的跟踪ID；响应头 X-Trace-Id 返回跟踪ID，
+ * 可用 /api/traces/{traceId} 查看。
+ */
+public class TraceFilter extends OncePerRequestFilter {
+
+    // W3C traceparent：版本-跟踪ID-父跨度ID-标记
+    private static final Pattern TRACEPARENT = Pattern.compile("^[0-9a-f]{2}-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})$");
+
+    private final TraceService traceService;
+
+    public TraceFilter(TraceService traceService) {
+        this.traceService = traceService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // 查看跟踪的请求本身不跟踪
+        return !traceService.isEnabled() || request.getRequestURI().startsWith(request.getContextPath() + "/api/traces");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String traceId = null;
+        String parentSpanId = null;
+        boolean forced = false;
+        String traceparent = request.getHeader("traceparent");
+        if (traceparent != null) {
+            Matcher matcher = TRACEPARENT.matcher(traceparent.trim());
+            if (matcher.matches()) {
+                traceId = matcher.group(1);
+                parentSpanId = matcher.group(2);
+                forced = (Integer.parseInt(matcher.group(3), 16) & 1) != 0;
+            }
+        }
+        if (!traceService.shouldSample(forced)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        TraceSpan root = traceService.begin(traceId, parentSpanId, request.getMethod() + " " + request.getRequestURI());
+        root.setAttribute("http.method", request.getMethod());
+        root.setAttribute("http.target", request.getQueryString() != null
+                ? request.getRequestURI() + "?" + request.getQueryString() : request.getRequestURI());
+        response.setHeader("X-Trace-Id", Tracing.currentTraceId());
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            root.setError(e.getMessage());
+            throw e;
+        } finally {
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (route != null) {
+                root.setAttribute("http.route", route);
+                root.updateName(request.getMethod() + " " + route);
+            }
+            root.setAttribute("http.status_code", response.getStatus());
+            if (response.getStatus() >= 500) {
+                root.setError("HTTP " + response.getStatus());
+            }
+            if (request.isAsyncStarted()) {
+                // SSE 等异步请求只记录到处理线程返回为止
+                root.setAttribute("http.async", true);
+            }
+            root.end();
+            traceService.finish();
+        }
+    }
+}
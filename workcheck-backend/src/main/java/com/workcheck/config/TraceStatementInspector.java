@@ -0,0 +1,17 @@
+package com.workcheck.config;
+
+import com.workcheck.service.Tracing;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * 统计每个跨度中执行的SQL语句数（db.statement_count），包括 DTO 转换中延迟加载集合触发的查询
+ * 通过 spring.jpa.properties.hibernate.session_factory.statement_inspector 配置，由 Hibernate 创建实例。
+ */
+public class TraceStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        Tracing.recordStatement();
+        return sql;
+    }
+}
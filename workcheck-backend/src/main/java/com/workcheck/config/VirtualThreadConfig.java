@@ -0,0 +1,30 @@
+package com.workcheck.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 请求处理使用虚拟线程（workcheck.threads.virtual=true，需要 Java 21 运行，见 application-java21.yml）
+ * Tomcat 的请求线程池换成每个请求一个虚拟线程，执行 git 子进程、等待数据库连接等阻塞操作时不占用平台线程，
+ * 并发请求数不再受 server.tomcat.threads.max 限制；数据库访问仍受连接池大小限制。
+ */
+@Configuration
+@ConditionalOnProperty(name = "workcheck.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = VirtualThreads.newExecutor("http-vt-");
+        if (executor == null) {
+            System.err.println("当前Java版本 " + System.getProperty("java.version") + " 不支持虚拟线程（需要 Java 21+），请求仍使用平台线程池");
+            return protocolHandler -> {
+            };
+        }
+        System.out.println("请求处理使用虚拟线程");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+}
@@ -0,0 +1,53 @@
+package com.workcheck.controller;
+
+import com.workcheck.dto.ApiResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+/**
+ * 接口的统一异常处理，出错时返回 {"success": false, "error": ...}
+ * 参数错误（IllegalArgumentException）返回200，由前端按 success 提示；
+ * 请求格式错误（缺少参数、类型不符、请求体无法解析）返回400；其余异常返回500。
+ */
+@RestControllerAdvice(basePackages = "com.workcheck.controller")
+public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.ok(ApiResponse.error(e.getMessage()));
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ApiResponse> handleTypeMismatch(MethodArgumentTypeMismatchException e) {
+        return ResponseEntity.badRequest().body(ApiResponse.error("参数 " + e.getName() + " 格式错误: " + e.getValue()));
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ApiResponse> handleException(Exception e, HandlerMethod handlerMethod) {
+        FailureMessage failure = handlerMethod != null ? handlerMethod.getMethodAnnotation(FailureMessage.class) : null;
+        String error = failure != null ? failure.value() + "：" + e.getMessage() : e.getMessage();
+        System.err.println(handlerMethod != null ? handlerMethod.getShortLogMessage() + " 出错: " + e : "请求出错: " + e);
+        return ResponseEntity.internalServerError().body(ApiResponse.error(error));
+    }
+
+    /**
+     * Spring MVC 标准异常（缺少参数、请求体无法解析、不支持的方法等）沿用其状态码，响应体改为统一格式
+     */
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(Exception ex, Object body, HttpHeaders headers,
+                                                             HttpStatus status, WebRequest request) {
+        // SSE 等异步请求超时没有JSON响应体
+        if (body == null && !(ex instanceof AsyncRequestTimeoutException)) {
+            body = ApiResponse.error(ex.getMessage());
+        }
+        return super.handleExceptionInternal(ex, body, headers, status, request);
+    }
+}
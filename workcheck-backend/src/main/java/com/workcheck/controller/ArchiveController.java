@@ -0,0 +1,75 @@
+package com.workcheck.controller;
+
+import com.workcheck.dto.ArchiveListResponse;
+import com.workcheck.dto.ArchiveResultResponse;
+import com.workcheck.dto.ArchiveRunResponse;
+import com.workcheck.service.MonthArchiveJob;
+import com.workcheck.service.MonthArchiveService;
+import com.workcheck.service.WorkCheckService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+
+@RestController
+@RequestMapping("/api/archive")
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class ArchiveController {
+
+    @Autowired
+    private WorkCheckService workCheckService;
+
+    @Autowired
+    private MonthArchiveService monthArchiveService;
+
+    @Autowired
+    private MonthArchiveJob monthArchiveJob;
+
+    /**
+     * 已归档的月份列表
+     */
+    @GetMapping
+    @FailureMessage("获取归档列表失败")
+    public ResponseEntity<ArchiveListResponse> listArchives() {
+        return ResponseEntity.ok(new ArchiveListResponse(monthArchiveService.listArchives()));
+    }
+
+    /**
+     * 归档指定用户月份
+     */
+    @PostMapping
+    @FailureMessage("归档失败")
+    public ResponseEntity<ArchiveResultResponse> archiveMonth(
+            @RequestParam String user,
+            @RequestParam String month) {
+        boolean archived = workCheckService.archiveMonth(user, month);
+        ArchiveResultResponse response = new ArchiveResultResponse();
+        response.setArchived(archived);
+        response.setMessage(archived ? "归档成功" : "该月份没有需要归档的任务");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 取消归档，任务写回热表
+     */
+    @DeleteMapping
+    @FailureMessage("取消归档失败")
+    public ResponseEntity<ArchiveResultResponse> unarchiveMonth(
+            @RequestParam String user,
+            @RequestParam String month) {
+        boolean restored = workCheckService.unarchiveMonth(user, month);
+        ArchiveResultResponse response = new ArchiveResultResponse();
+        response.setRestored(restored);
+        response.setMessage(restored ? "已取消归档" : "该月份未归档");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 立即执行一次归档任务
+     */
+    @PostMapping("/run")
+    @FailureMessage("执行归档失败")
+    public ResponseEntity<ArchiveRunResponse> runArchive() {
+        return ResponseEntity.ok(new ArchiveRunResponse(monthArchiveJob.archiveClosedMonths()));
+    }
+}
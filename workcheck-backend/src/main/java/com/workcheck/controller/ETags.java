@@ -0,0 +1,22 @@
+package com.workcheck.controller;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 由数据指纹生成 ETag
+ * 使用弱 ETag：Tomcat 不压缩带强 ETag 的响应，而且同一内容的 gzip 与未压缩表示不应共用强 ETag
+ */
+final class ETags {
+
+    private ETags() {}
+
+    static String of(Object... parts) {
+        StringBuilder fingerprint = new StringBuilder();
+        for (Object part : parts) {
+            fingerprint.append(part).append('\u0000');
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(fingerprint.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,17 @@
+package com.workcheck.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 接口出错时 error 的前缀，如 "获取文件内容失败"，返回 "获取文件内容失败：" + 异常信息
+ * 见 ApiExceptionHandler；未标注的接口直接返回异常信息。
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface FailureMessage {
+
+    String value();
+}
@@ -0,0 +1,50 @@
+package com.workcheck.controller;
+
+import com.workcheck.dto.ApiResponse;
+import com.workcheck.dto.FileTaskDTO;
+import com.workcheck.dto.FileTaskListResponse;
+import com.workcheck.dto.PathListResponse;
+import com.workcheck.service.FilePathService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/files")
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class FileController {
+
+    @Autowired
+    private FilePathService filePathService;
+
+    /**
+     * 按文件反查登记过它的任务（跨用户、月份）
+     * 指定 path 时按完整路径查找，指定 prefix 时查找目录下所有文件
+     */
+    @GetMapping("/tasks")
+    @FailureMessage("查询文件关联任务失败")
+    public ResponseEntity<ApiResponse> getFileTasks(
+            @RequestParam(required = false) String path,
+            @RequestParam(required = false) String prefix) {
+        List<FileTaskDTO> tasks;
+        if (path != null && !path.isEmpty()) {
+            tasks = filePathService.findTasksByPath(path);
+        } else if (prefix != null && !prefix.isEmpty()) {
+            tasks = filePathService.findTasksByPrefix(prefix);
+        } else {
+            return ResponseEntity.ok(ApiResponse.error("请指定 path 或 prefix"));
+        }
+        return ResponseEntity.ok(new FileTaskListResponse(tasks));
+    }
+
+    /**
+     * 列出目录下登记过的文件路径
+     */
+    @GetMapping("/paths")
+    @FailureMessage("查询文件路径失败")
+    public ResponseEntity<PathListResponse> getPaths(@RequestParam String prefix) {
+        return ResponseEntity.ok(new PathListResponse(filePathService.findPathsByPrefix(prefix)));
+    }
+}
@@ -1,13 +1,31 @@
 package com.workcheck.controller;
 
+import com.workcheck.dto.ApiResponse;
+import com.workcheck.dto.CommitListResponse;
+import com.workcheck.dto.CoverageResponse;
+import com.workcheck.dto.FileCommitsBatchResponse;
+import com.workcheck.dto.FileDiffDTO;
+import com.workcheck.dto.FileDiffResponse;
 import com.workcheck.dto.GitCommitDTO;
+import com.workcheck.dto.GitCoverageDTO;
+import com.workcheck.dto.GitRepositoryDTO;
+import com.workcheck.dto.RepositoryCheckResponse;
+import com.workcheck.dto.RepositoryListResponse;
+import com.workcheck.dto.RepositoryResponse;
+import com.workcheck.service.GitRepositoryRegistry;
+import com.workcheck.service.GitRepositoryWatcher;
 import com.workcheck.service.GitService;
+import com.workcheck.service.WorkCheckService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -19,200 +37,238 @@ public class GitController {
     @Autowired
     private GitService gitService;
 
+    @Autowired
+    private WorkCheckService workCheckService;
+
+    @Autowired
+    private GitRepositoryRegistry repositoryRegistry;
+
+    @Autowired
+    private GitRepositoryWatcher repositoryWatcher;
+
     /**
      * 获取指定月份的Git提交记录
      */
     @GetMapping("/commits")
-    public ResponseEntity<Map<String, Object>> getCommits(
+    @FailureMessage("获取Git提交记录失败")
+    public ResponseEntity<ApiResponse> getCommits(
             @RequestParam String userName,
             @RequestParam String month,
-            @RequestParam(required = false) String projectPath) {
-        Map<String, Object> response = new HashMap<>();
-
-        try {
-            // 检查是否为Git仓库
-            if (projectPath != null && !projectPath.isEmpty()) {
-                if (!gitService.isGitRepository(projectPath)) {
-                    response.put("success", false);
-                    response.put("error", "指定路径不是Git仓库");
-                    return ResponseEntity.ok(response);
-                }
-            }
-
-            // 获取提交记录
-            List<GitCommitDTO> commits = gitService.getCommitsForMonth(projectPath, userName, month);
+            @RequestParam(required = false) String projectPath,
+            @RequestParam(required = false) Long repoId,
+            WebRequest webRequest) {
+        // 未指定仓库时返回空列表
+        if (repoId == null && (projectPath == null || projectPath.isEmpty())) {
+            return ResponseEntity.ok(new CommitListResponse(new ArrayList<>(), null));
+        }
 
-            // 获取远程URL
-            String remoteUrl = null;
-            if (projectPath != null && !projectPath.isEmpty()) {
-                remoteUrl = gitService.getRemoteUrl(projectPath);
-            }
+        // 检查是否为Git仓库
+        GitRepositoryDTO repository = repositoryRegistry.resolve(repoId, projectPath);
+        if (repository == null) {
+            return ResponseEntity.ok(ApiResponse.error("指定路径不是Git仓库"));
+        }
 
-            response.put("success", true);
-            response.put("commits", commits);
-            response.put("remoteUrl", remoteUrl);
-            response.put("total", commits.size());
+        // HEAD未移动时提交记录不变，直接返回304，不执行 git log
+        String head = gitService.resolveHead(repository.getPath());
+        String eTag = head != null ? ETags.of(repository.getPath(), head, userName, month) : null;
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
 
-            return ResponseEntity.ok(response);
+        // 获取提交记录和远程URL
+        List<GitCommitDTO> commits = gitService.getCommitsForMonth(repository.getPath(), userName, month);
+        CommitListResponse response = new CommitListResponse(commits, repositoryRegistry.getRemoteUrl(repository));
 
-        } catch (Exception e) {
-            response.put("success", false);
-            response.put("error", "获取Git提交记录失败：" + e.getMessage());
-            return ResponseEntity.internalServerError().body(response);
-        }
+        return eTag != null ? ResponseEntity.ok().eTag(eTag).body(response) : ResponseEntity.ok(response);
     }
 
     /**
      * 获取文件的修改内容
      */
     @GetMapping("/file-diff")
-    public ResponseEntity<Map<String, Object>> getFileDiff(
-            @RequestParam String projectPath,
+    @FailureMessage("获取文件内容失败")
+    public ResponseEntity<ApiResponse> getFileDiff(
+            @RequestParam(required = false) String projectPath,
+            @RequestParam(required = false) Long repoId,
             @RequestParam String commitHash,
-            @RequestParam String filePath) {
-        Map<String, Object> response = new HashMap<>();
-
-        try {
-            // 检查是否为Git仓库
-            if (!gitService.isGitRepository(projectPath)) {
-                response.put("success", false);
-                response.put("error", "指定路径不是Git仓库");
-                return ResponseEntity.ok(response);
-            }
-
-            // 获取文件内容
-            String content = gitService.getFileDiff(projectPath, commitHash, filePath);
+            @RequestParam String filePath,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "0") int limit,
+            @RequestParam(defaultValue = "0") int maxBytes,
+            WebRequest webRequest) {
+        // 检查是否为Git仓库
+        GitRepositoryDTO repository = repositoryRegistry.resolve(repoId, projectPath);
+        if (repository == null) {
+            return ResponseEntity.ok(ApiResponse.error("指定路径不是Git仓库"));
+        }
 
-            response.put("success", true);
-            response.put("content", content);
-            response.put("commitHash", commitHash);
-            response.put("filePath", filePath);
+        // 提交内容不可变，同一提交、文件和分页参数的结果始终相同
+        String commitId = gitService.resolveCommit(repository.getPath(), commitHash);
+        String eTag = commitId != null
+                ? ETags.of(repository.getPath(), commitId, filePath, offset, limit, maxBytes, gitService.getDiffMaxBytes())
+                : null;
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
 
-            return ResponseEntity.ok(response);
+        // 获取文件内容（分页、限制字节数）
+        FileDiffDTO diff = gitService.getFileDiff(repository.getPath(), commitHash, filePath, offset, limit, maxBytes);
+        FileDiffResponse response = new FileDiffResponse(diff, commitHash, filePath);
 
-        } catch (Exception e) {
-            response.put("success", false);
-            response.put("error", "获取文件内容失败：" + e.getMessage());
-            return ResponseEntity.internalServerError().body(response);
-        }
+        return eTag != null ? ResponseEntity.ok().eTag(eTag).body(response) : ResponseEntity.ok(response);
     }
 
     /**
      * 获取指定文件的Git提交历史
      */
     @GetMapping("/file-commits")
-    public ResponseEntity<Map<String, Object>> getFileCommits(
+    @FailureMessage("获取文件提交历史失败")
+    public ResponseEntity<ApiResponse> getFileCommits(
             @RequestParam String fileName,
             @RequestParam String userName,
             @RequestParam(required = false) String month,
-            @RequestParam String projectPath,
+            @RequestParam(required = false) String projectPath,
+            @RequestParam(required = false) Long repoId,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate) {
-        Map<String, Object> response = new HashMap<>();
-
-        try {
-            // 检查是否为Git仓库
-            if (!gitService.isGitRepository(projectPath)) {
-                response.put("success", false);
-                response.put("error", "指定路径不是Git仓库");
-                return ResponseEntity.ok(response);
-            }
-
-            // 获取所有提交记录
-            List<GitCommitDTO> allCommits = gitService.getCommitsForDateRange(projectPath, userName, month, startDate, endDate);
-
-            // 过滤出包含指定文件的提交
-            List<GitCommitDTO> fileCommits = new ArrayList<>();
-            for (GitCommitDTO commit : allCommits) {
-                if (commit.getFiles() != null) {
-                    // 智能匹配文件路径
-                    for (String file : commit.getFiles()) {
-                        if (isFileMatch(fileName, file)) {
-                            fileCommits.add(commit);
-                            break;
-                        }
-                    }
-                }
-            }
-
-            // 获取远程URL
-            String remoteUrl = gitService.getRemoteUrl(projectPath);
-            // 获取默认分支
-            String defaultBranch = gitService.getDefaultBranch(projectPath);
-
-            response.put("success", true);
-            response.put("commits", fileCommits);
-            response.put("remoteUrl", remoteUrl);
-            response.put("defaultBranch", defaultBranch);
-            response.put("total", fileCommits.size());
+        // 检查是否为Git仓库
+        GitRepositoryDTO repository = repositoryRegistry.resolve(repoId, projectPath);
+        if (repository == null) {
+            return ResponseEntity.ok(ApiResponse.error("指定路径不是Git仓库"));
+        }
 
-            return ResponseEntity.ok(response);
+        // 获取包含指定文件的提交（精确路径交给git过滤，其余按文件名智能匹配）
+        List<GitCommitDTO> fileCommits = gitService.getFileCommits(repository.getPath(), userName, month, startDate, endDate, fileName);
 
-        } catch (Exception e) {
-            response.put("success", false);
-            response.put("error", "获取文件提交历史失败：" + e.getMessage());
-            return ResponseEntity.internalServerError().body(response);
-        }
+        // 远程URL和默认分支
+        CommitListResponse response = new CommitListResponse(fileCommits, repositoryRegistry.getRemoteUrl(repository));
+        response.setDefaultBranch(repositoryRegistry.getDefaultBranch(repository));
+        return ResponseEntity.ok(response);
     }
 
     /**
-     * 检查是否为Git仓库
+     * 批量获取多个文件的Git提交历史
+     * 请求体为文件路径列表；为空时使用该用户当月所有任务中登记的文件。
+     * 只执行一次 git log，再按 isFileMatch 规则为每个文件分配提交记录。
      */
-    @GetMapping("/check-repo")
-    public ResponseEntity<Map<String, Object>> checkRepository(@RequestParam String projectPath) {
-        Map<String, Object> response = new HashMap<>();
-
-        try {
-            boolean isRepo = gitService.isGitRepository(projectPath);
-            String remoteUrl = null;
+    @PostMapping("/file-commits/batch")
+    @FailureMessage("批量获取文件提交历史失败")
+    public ResponseEntity<ApiResponse> getFileCommitsBatch(
+            @RequestParam String userName,
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) String projectPath,
+            @RequestParam(required = false) Long repoId,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestBody(required = false) List<String> fileNames) {
+        // 检查是否为Git仓库
+        GitRepositoryDTO repository = repositoryRegistry.resolve(repoId, projectPath);
+        if (repository == null) {
+            return ResponseEntity.ok(ApiResponse.error("指定路径不是Git仓库"));
+        }
 
-            if (isRepo) {
-                remoteUrl = gitService.getRemoteUrl(projectPath);
+        // 未指定文件时，取该用户当月任务中登记的全部文件
+        if (fileNames == null || fileNames.isEmpty()) {
+            if (month == null || month.isEmpty()) {
+                return ResponseEntity.ok(ApiResponse.error("未指定文件列表时必须提供月份"));
             }
+            fileNames = workCheckService.getTaskFilePaths(userName, month);
+        }
 
-            response.put("success", true);
-            response.put("isRepository", isRepo);
-            response.put("remoteUrl", remoteUrl);
+        // 一次扫描获取所有提交记录，再为每个文件匹配
+        List<GitCommitDTO> allCommits = gitService.getCommitsForDateRange(repository.getPath(), userName, month, startDate, endDate);
+        Map<String, List<GitCommitDTO>> fileCommits = gitService.matchFileCommits(allCommits, fileNames);
 
-            return ResponseEntity.ok(response);
+        FileCommitsBatchResponse response = new FileCommitsBatchResponse(fileCommits,
+                repositoryRegistry.getRemoteUrl(repository), repositoryRegistry.getDefaultBranch(repository), allCommits.size());
+        response.setTotalFiles(fileCommits.size());
+        return ResponseEntity.ok(response);
+    }
 
-        } catch (Exception e) {
-            response.put("success", false);
-            response.put("error", "检查仓库失败：" + e.getMessage());
-            return ResponseEntity.internalServerError().body(response);
+    /**
+     * 核对Git变更文件与任务登记文件：已变更未登记、已登记未变更
+     */
+    @GetMapping("/coverage")
+    @FailureMessage("核对文件登记情况失败")
+    public ResponseEntity<ApiResponse> getCoverage(
+            @RequestParam String userName,
+            @RequestParam String month,
+            @RequestParam(required = false) String projectPath,
+            @RequestParam(required = false) Long repoId,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate) {
+        // 检查是否为Git仓库
+        GitRepositoryDTO repository = repositoryRegistry.resolve(repoId, projectPath);
+        if (repository == null) {
+            return ResponseEntity.ok(ApiResponse.error("指定路径不是Git仓库"));
         }
+
+        // 只需要文件名，不统计行数
+        List<GitCommitDTO> commits = gitService.getCommitsForDateRange(repository.getPath(), userName, month, startDate, endDate, false);
+        List<String> listedFiles = workCheckService.getTaskFilePaths(userName, month);
+        GitCoverageDTO coverage = gitService.buildCoverageReport(commits, listedFiles);
+
+        return ResponseEntity.ok(new CoverageResponse(coverage, commits.size()));
     }
 
     /**
-     * 智能匹配文件路径
+     * 检查是否为Git仓库
      */
-    private boolean isFileMatch(String fileName, String gitFile) {
-        // 如果完全匹配
-        if (fileName.equals(gitFile)) {
-            return true;
+    @GetMapping("/check-repo")
+    @FailureMessage("检查仓库失败")
+    public ResponseEntity<RepositoryCheckResponse> checkRepository(@RequestParam String projectPath) {
+        GitRepositoryDTO repository = repositoryRegistry.resolve(null, projectPath);
+        if (repository == null) {
+            return ResponseEntity.ok(new RepositoryCheckResponse(false, null, null));
         }
+        return ResponseEntity.ok(new RepositoryCheckResponse(true, repositoryRegistry.getRemoteUrl(repository), repository.getId()));
+    }
 
-        // 如果是文件名（不包含路径）
-        if (!fileName.contains("/") && gitFile.contains("/")) {
-            String gitFileName = gitFile.substring(gitFile.lastIndexOf("/") + 1);
-            if (fileName.equals(gitFileName)) {
-                return true;
-            }
-        }
+    /**
+     * 获取已登记的Git仓库
+     */
+    @GetMapping("/repositories")
+    @FailureMessage("获取仓库列表失败")
+    public ResponseEntity<RepositoryListResponse> listRepositories() {
+        return ResponseEntity.ok(new RepositoryListResponse(repositoryRegistry.list()));
+    }
 
-        // 如果Git文件路径包含输入的文件名
-        if (gitFile.contains(fileName)) {
-            return true;
-        }
+    /**
+     * 登记Git仓库（已登记的路径会刷新远程地址和默认分支）
+     */
+    @PostMapping("/repositories")
+    @FailureMessage("登记仓库失败")
+    public ResponseEntity<RepositoryResponse> registerRepository(
+            @RequestParam String projectPath,
+            @RequestParam(required = false) String name) {
+        return ResponseEntity.ok(new RepositoryResponse(repositoryRegistry.register(projectPath, name)));
+    }
 
-        // 模糊匹配（去除常见后缀）
-        String fileNameBase = fileName.replaceAll("\\.(java|js|ts|py|go|rs|cpp|c|h|hpp|css|html|xml|yaml|yml|json|sql|md|txt)$", "");
-        String gitFileBase = gitFile.replaceAll("\\.(java|js|ts|py|go|rs|cpp|c|h|hpp|css|html|xml|yaml|yml|json|sql|md|txt)$", "");
+    /**
+     * 重新获取仓库的远程地址和默认分支
+     */
+    @PostMapping("/repositories/{id}/refresh")
+    @FailureMessage("刷新仓库信息失败")
+    public ResponseEntity<RepositoryResponse> refreshRepository(@PathVariable Long id) {
+        return ResponseEntity.ok(new RepositoryResponse(repositoryRegistry.refresh(id)));
+    }
 
-        if (fileNameBase.length() > 3 && gitFileBase.contains(fileNameBase)) {
-            return true;
-        }
+    /**
+     * 订阅仓库的新提交事件（Server-Sent Events）
+     * 连接建立后先发送 ready 事件（当前HEAD），之后每次HEAD移动发送 commits 事件，只包含新增的提交
+     */
+    @GetMapping(value = "/repositories/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeRepositoryEvents(@PathVariable Long id) throws IOException {
+        return repositoryWatcher.subscribe(repositoryRegistry.get(id));
+    }
 
-        return false;
+    /**
+     * 取消登记Git仓库
+     */
+    @DeleteMapping("/repositories/{id}")
+    @FailureMessage("取消登记失败")
+    public ResponseEntity<ApiResponse> unregisterRepository(@PathVariable Long id) {
+        repositoryRegistry.unregister(id);
+        return ResponseEntity.ok(ApiResponse.ok("已取消登记"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,106 @@
+package com.workcheck.controller;
+
+import com.workcheck.dto.ApiResponse;
+import com.workcheck.dto.ChangeListResponse;
+import com.workcheck.dto.TaskChangeLogDTO;
+import com.workcheck.dto.TaskDTO;
+import com.workcheck.dto.TasksResponse;
+import com.workcheck.service.TaskChangeLogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/history")
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class HistoryController {
+
+    private static final DateTimeFormatter LOCAL_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private TaskChangeLogService taskChangeLogService;
+
+    /**
+     * 某用户月份最近的变更记录（谁在什么时候改了哪个任务），可按任务编号过滤
+     */
+    @GetMapping
+    @FailureMessage("获取变更记录失败")
+    public ResponseEntity<ChangeListResponse> getHistory(
+            @RequestParam String user,
+            @RequestParam String month,
+            @RequestParam(required = false) String taskId,
+            @RequestParam(defaultValue = "50") int limit) {
+        List<TaskChangeLogDTO> changes = taskChangeLogService.findRecent(user, month, taskId, clampLimit(limit));
+        return ResponseEntity.ok(new ChangeListResponse(changes));
+    }
+
+    /**
+     * 回放某用户月份在指定时间点（at）或版本（version）时的任务列表
+     */
+    @GetMapping("/replay")
+    @FailureMessage("回放失败")
+    public ResponseEntity<ApiResponse> replay(
+            @RequestParam String user,
+            @RequestParam String month,
+            @RequestParam(required = false) String at,
+            @RequestParam(required = false) Long version) {
+        TasksResponse response;
+        if (version != null) {
+            response = new TasksResponse(taskChangeLogService.replayVersion(user, month, version), version);
+        } else if (at != null && !at.isEmpty()) {
+            Date time = parseTime(at);
+            response = new TasksResponse(taskChangeLogService.replayAt(user, month, time), null);
+            response.setAt(time);
+        } else {
+            return ResponseEntity.ok(ApiResponse.error("请指定 at 或 version"));
+        }
+        response.setTotal(response.getTasks().size());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 增量读取变更日志：返回ID大于 after 的记录，下次以 next 作为 after
+     */
+    @GetMapping("/feed")
+    @FailureMessage("读取变更日志失败")
+    public ResponseEntity<ChangeListResponse> feed(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "200") int limit) {
+        List<TaskChangeLogDTO> changes = taskChangeLogService.findAfter(after, clampLimit(limit));
+        ChangeListResponse response = new ChangeListResponse(changes);
+        response.setNext(changes.isEmpty() ? after : changes.get(changes.size() - 1).getId());
+        return ResponseEntity.ok(response);
+    }
+
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * 支持毫秒时间戳、yyyy-MM-dd HH:mm:ss（服务器时区）和带时区的 ISO-8601 时间
+     */
+    private static Date parseTime(String value) {
+        String text = value.trim();
+        try {
+            if (text.matches("\\d+")) {
+                return new Date(Long.parseLong(text));
+            }
+            if (text.length() == 19 && text.charAt(10) == ' ') {
+                return Date.from(LocalDateTime.parse(text, LOCAL_FORMAT).atZone(ZoneId.systemDefault()).toInstant());
+            }
+            return Date.from(OffsetDateTime.parse(text).toInstant());
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("无法识别的时间: " + value);
+        }
+    }
+}
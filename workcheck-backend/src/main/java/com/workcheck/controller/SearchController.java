@@ -0,0 +1,54 @@
+package com.workcheck.controller;
+
+import com.workcheck.dto.ApiResponse;
+import com.workcheck.dto.SearchResponse;
+import com.workcheck.service.TaskSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class SearchController {
+
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    /**
+     * 跨用户、月份检索任务（变更内容、任务编号、文件路径），按相关度排序
+     */
+    @GetMapping
+    @FailureMessage("检索失败")
+    public ResponseEntity<ApiResponse> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) String month,
+            @RequestParam(defaultValue = "20") int limit) throws IOException {
+        long start = System.nanoTime();
+        TaskSearchService.SearchResult result;
+        try {
+            result = taskSearchService.search(q, user, month, limit);
+        } catch (IllegalStateException e) {
+            // 索引未开启或正在重建
+            return ResponseEntity.ok(ApiResponse.error(e.getMessage()));
+        }
+        return ResponseEntity.ok(new SearchResponse(result.getHits(), result.getTotal(), (System.nanoTime() - start) / 1000000.0));
+    }
+
+    /**
+     * 从数据库全量重建索引（后台执行）
+     */
+    @PostMapping("/rebuild")
+    @FailureMessage("重建索引失败")
+    public ResponseEntity<ApiResponse> rebuild() {
+        try {
+            taskSearchService.rebuild();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.ok(ApiResponse.error(e.getMessage()));
+        }
+        return ResponseEntity.ok(ApiResponse.ok("已开始重建索引"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.workcheck.controller;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.workcheck.dto.ApiResponse;
+import com.workcheck.dto.TraceListResponse;
+import com.workcheck.dto.TraceResponse;
+import com.workcheck.service.TraceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/traces")
+public class TraceController {
+
+    @Autowired
+    private TraceService traceService;
+
+    /**
+     * 最近采样的请求跟踪（内存中保留 workcheck.trace.buffer-size 个），新的在前
+     */
+    @GetMapping
+    @FailureMessage("获取请求跟踪失败")
+    public ResponseEntity<TraceListResponse> listTraces(
+            @RequestParam(defaultValue = "0") double minDurationMs,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(new TraceListResponse(
+                traceService.listTraces(minDurationMs, Math.max(1, Math.min(limit, 500))), traceService.getSampleRate()));
+    }
+
+    /**
+     * 单个请求跟踪的全部跨度（OTLP JSON）
+     */
+    @GetMapping("/{traceId}")
+    @FailureMessage("获取请求跟踪失败")
+    public ResponseEntity<ApiResponse> getTrace(@PathVariable String traceId) {
+        ArrayNode resourceSpans = traceService.findTrace(traceId);
+        if (resourceSpans == null) {
+            return ResponseEntity.ok(ApiResponse.error("跟踪不存在或已移出缓冲区: " + traceId));
+        }
+        return ResponseEntity.ok(new TraceResponse(resourceSpans));
+    }
+}
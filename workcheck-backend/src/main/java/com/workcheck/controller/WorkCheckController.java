@@ -1,14 +1,33 @@
 package com.workcheck.controller;
 
+import com.workcheck.config.VirtualThreads;
+import com.workcheck.dto.ApiResponse;
+import com.workcheck.dto.CheckStatsResponse;
+import com.workcheck.dto.CheckTemplateResponse;
+import com.workcheck.dto.HealthResponse;
+import com.workcheck.dto.MonthListResponse;
+import com.workcheck.dto.QueuedSaveResponse;
+import com.workcheck.dto.StatsResponse;
 import com.workcheck.dto.TaskDTO;
+import com.workcheck.dto.TaskDeltaDTO;
+import com.workcheck.dto.TasksResponse;
+import com.workcheck.dto.UserListResponse;
+import com.workcheck.service.ReadReplicaRouting;
+import com.workcheck.service.SaveLockService;
+import com.workcheck.service.StartupTimer;
+import com.workcheck.service.TaskEventBroadcaster;
 import com.workcheck.service.WorkCheckService;
+import com.workcheck.service.WriteBehindSaveService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.HashMap;
+import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
@@ -18,121 +37,139 @@ public class WorkCheckController {
     @Autowired
     private WorkCheckService workCheckService;
 
-    // 加载任务
+    @Autowired
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    @Autowired
+    private WriteBehindSaveService writeBehindSaveService;
+
+    @Autowired
+    private SaveLockService saveLockService;
+
+    @Autowired
+    private ReadReplicaRouting readReplicaRouting;
+
+    @Autowired
+    private StartupTimer startupTimer;
+
+    // 加载任务，指定 since 时只返回该版本之后变化的任务和已删除的任务编号
     @GetMapping("/load")
-    public ResponseEntity<Map<String, Object>> loadTasks(
+    public ResponseEntity<TasksResponse> loadTasks(
             @RequestParam String user,
-            @RequestParam String month) {
-        try {
-            List<TaskDTO> tasks = workCheckService.loadTasks(user, month);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("tasks", tasks);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("error", e.getMessage());
-            return ResponseEntity.internalServerError().body(response);
+            @RequestParam String month,
+            @RequestParam(required = false) Long since,
+            WebRequest webRequest) {
+        // 先写入队列中尚未写入的保存，保证读到最新数据
+        writeBehindSaveService.flush(user, month);
+
+        // 数据未变化时直接返回304，不加载任务
+        String eTag = ETags.of(user, month, since, workCheckService.getTasksFingerprint(user, month));
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        TaskDeltaDTO delta = workCheckService.loadTaskDelta(user, month, since);
+        TasksResponse response = new TasksResponse(delta.getTasks(), delta.getVersion());
+        if (since != null) {
+            response.setFull(delta.isFull());
+            response.setDeleted(delta.getDeleted());
         }
+        return ResponseEntity.ok().eTag(eTag).body(response);
     }
 
     // 保存任务
     @PostMapping("/save")
-    public ResponseEntity<Map<String, Object>> saveTasks(
+    public ResponseEntity<ApiResponse> saveTasks(
             @RequestParam String user,
             @RequestParam String month,
-            @RequestBody List<TaskDTO> tasks) {
-        try {
-            List<TaskDTO> savedTasks = workCheckService.saveTasks(user, month, tasks);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("tasks", savedTasks);
-            response.put("message", "保存成功");
+            @RequestParam(required = false) String clientId,
+            @RequestParam(required = false) String operator,
+            @RequestBody List<TaskDTO> tasks) throws IOException {
+        String changedBy = operator != null && !operator.isEmpty() ? operator : user;
+        // 写后保存模式：写入本地日志即返回，由后台写入数据库
+        if (writeBehindSaveService.isEnabled()) {
+            long seq = writeBehindSaveService.accept(user, month, tasks, clientId, changedBy);
+            QueuedSaveResponse response = new QueuedSaveResponse(seq);
+            response.setMessage("已接收，稍后写入");
             return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("error", e.getMessage());
-            return ResponseEntity.internalServerError().body(response);
         }
+
+        List<TaskDTO> savedTasks = workCheckService.saveTasks(user, month, tasks, clientId, changedBy);
+        TasksResponse response = new TasksResponse(savedTasks, workCheckService.getCurrentVersion(user, month));
+        response.setMessage("保存成功");
+        return ResponseEntity.ok(response);
+    }
+
+    // 订阅任务变更（Server-Sent Events），每次保存后推送 changes 事件，只包含有变化的任务
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeTaskEvents(
+            @RequestParam String user,
+            @RequestParam String month) throws IOException {
+        return taskEventBroadcaster.subscribe(user, month);
+    }
+
+    // 检查项完成情况
+    @GetMapping("/check-stats")
+    public ResponseEntity<CheckStatsResponse> getCheckStats(
+            @RequestParam String user,
+            @RequestParam String month) {
+        return ResponseEntity.ok(new CheckStatsResponse(workCheckService.getCheckStats(user, month)));
     }
 
     // 获取检查项模板
     @GetMapping("/check-template")
-    public ResponseEntity<Map<String, Object>> getCheckTemplate() {
-        try {
-            List<String> checks = workCheckService.getCheckTemplate();
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("checks", checks);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("error", e.getMessage());
-            return ResponseEntity.internalServerError().body(response);
-        }
+    public ResponseEntity<CheckTemplateResponse> getCheckTemplate() {
+        List<String> checks = workCheckService.getCheckTemplate();
+        return ResponseEntity.ok(new CheckTemplateResponse(checks, workCheckService.getCheckTemplateVersion()));
+    }
+
+    // 调整检查项模板，已保存的任务仍显示原来的检查项文本
+    @PutMapping("/check-template")
+    public ResponseEntity<CheckTemplateResponse> updateCheckTemplate(@RequestBody List<String> checks) {
+        int version = workCheckService.updateCheckTemplate(checks);
+        return ResponseEntity.ok(new CheckTemplateResponse(workCheckService.getCheckTemplate(), version));
     }
 
     // 获取所有用户
     @GetMapping("/users")
-    public ResponseEntity<Map<String, Object>> getAllUsers() {
-        try {
-            List<String> users = workCheckService.getAllUsers();
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("users", users);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("error", e.getMessage());
-            return ResponseEntity.internalServerError().body(response);
-        }
+    public ResponseEntity<UserListResponse> getAllUsers() {
+        return ResponseEntity.ok(new UserListResponse(workCheckService.getAllUsers()));
     }
 
     // 获取所有月份
     @GetMapping("/months")
-    public ResponseEntity<Map<String, Object>> getAllMonths() {
-        try {
-            List<String> months = workCheckService.getAllMonths();
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("months", months);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("error", e.getMessage());
-            return ResponseEntity.internalServerError().body(response);
-        }
+    public ResponseEntity<MonthListResponse> getAllMonths() {
+        return ResponseEntity.ok(new MonthListResponse(workCheckService.getAllMonths()));
     }
 
     // 初始化默认模板
     @PostMapping("/init-template")
-    public ResponseEntity<Map<String, Object>> initDefaultTemplate() {
-        try {
-            workCheckService.initializeDefaultCheckTemplate();
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "默认模板初始化成功");
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("error", e.getMessage());
-            return ResponseEntity.internalServerError().body(response);
-        }
+    public ResponseEntity<ApiResponse> initDefaultTemplate() {
+        workCheckService.initializeDefaultCheckTemplate();
+        return ResponseEntity.ok(ApiResponse.ok("默认模板初始化成功"));
+    }
+
+    // 写后保存队列状态
+    @GetMapping("/save-queue")
+    public ResponseEntity<StatsResponse> getSaveQueue() {
+        return ResponseEntity.ok(new StatsResponse(writeBehindSaveService.getStats()));
+    }
+
+    // 保存锁使用情况
+    @GetMapping("/save-locks")
+    public ResponseEntity<StatsResponse> getSaveLocks() {
+        return ResponseEntity.ok(new StatsResponse(saveLockService.getStats()));
     }
 
     // 健康检查
     @GetMapping("/health")
-    public ResponseEntity<Map<String, Object>> health() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "OK");
-        response.put("message", "WorkCheck API is running");
-        response.put("timestamp", System.currentTimeMillis());
+    public ResponseEntity<HealthResponse> health() {
+        HealthResponse response = new HealthResponse();
+        response.setStartup(startupTimer.getStats());
+        response.setVirtualThreads(VirtualThreads.isVirtual(Thread.currentThread()));
+        if (readReplicaRouting.isEnabled()) {
+            response.setReadReplica(readReplicaRouting.getStats());
+        }
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+}
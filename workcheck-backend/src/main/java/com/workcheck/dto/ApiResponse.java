@@ -0,0 +1,52 @@
+package com.workcheck.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * 接口响应的公共部分：{"success": true/false, "message": ..., "error": ...}
+ * 各接口的响应类继承本类并添加自己的字段；值为 null 的字段不输出。
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ApiResponse {
+
+    private boolean success = true;
+    private String message;
+    private String error;
+
+    public static ApiResponse ok(String message) {
+        ApiResponse response = new ApiResponse();
+        response.setMessage(message);
+        return response;
+    }
+
+    public static ApiResponse error(String error) {
+        ApiResponse response = new ApiResponse();
+        response.setSuccess(false);
+        response.setError(error);
+        return response;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
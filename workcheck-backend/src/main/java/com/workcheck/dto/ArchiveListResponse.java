@@ -0,0 +1,32 @@
+package com.workcheck.dto;
+
+import java.util.List;
+
+// 已归档的月份列表
+public class ArchiveListResponse extends ApiResponse {
+    private List<ArchivedMonthDTO> archives;
+    private int total;
+
+    public ArchiveListResponse() {}
+
+    public ArchiveListResponse(List<ArchivedMonthDTO> archives) {
+        this.archives = archives;
+        this.total = archives.size();
+    }
+
+    public List<ArchivedMonthDTO> getArchives() {
+        return archives;
+    }
+
+    public void setArchives(List<ArchivedMonthDTO> archives) {
+        this.archives = archives;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,27 @@
+package com.workcheck.dto;
+
+// 归档、取消归档的结果
+public class ArchiveResultResponse extends ApiResponse {
+    // 是否归档了任务
+    private Boolean archived;
+    // 是否写回了热表
+    private Boolean restored;
+
+    public ArchiveResultResponse() {}
+
+    public Boolean getArchived() {
+        return archived;
+    }
+
+    public void setArchived(Boolean archived) {
+        this.archived = archived;
+    }
+
+    public Boolean getRestored() {
+        return restored;
+    }
+
+    public void setRestored(Boolean restored) {
+        this.restored = restored;
+    }
+}
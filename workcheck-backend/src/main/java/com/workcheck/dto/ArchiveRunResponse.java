@@ -0,0 +1,21 @@
+package com.workcheck.dto;
+
+// 执行一次归档任务的结果
+public class ArchiveRunResponse extends ApiResponse {
+    // 归档的用户月份数
+    private int archived;
+
+    public ArchiveRunResponse() {}
+
+    public ArchiveRunResponse(int archived) {
+        this.archived = archived;
+    }
+
+    public int getArchived() {
+        return archived;
+    }
+
+    public void setArchived(int archived) {
+        this.archived = archived;
+    }
+}
@@ -0,0 +1,71 @@
+package com.workcheck.dto;
+
+import java.util.Date;
+
+public class ArchivedMonthDTO {
+    private String userName;
+    private String month;
+    // 归档时的版本号
+    private long version;
+    private int taskCount;
+    // 压缩前、后的字节数
+    private int rawBytes;
+    private int storedBytes;
+    private Date archivedAt;
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    public void setTaskCount(int taskCount) {
+        this.taskCount = taskCount;
+    }
+
+    public int getRawBytes() {
+        return rawBytes;
+    }
+
+    public void setRawBytes(int rawBytes) {
+        this.rawBytes = rawBytes;
+    }
+
+    public int getStoredBytes() {
+        return storedBytes;
+    }
+
+    public void setStoredBytes(int storedBytes) {
+        this.storedBytes = storedBytes;
+    }
+
+    public Date getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(Date archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
@@ -0,0 +1,32 @@
+package com.workcheck.dto;
+
+import java.util.List;
+
+// 任务变更记录
+public class ChangeListResponse extends ApiResponse {
+    private List<TaskChangeLogDTO> changes;
+    // 增量读取时：下次请求的 after
+    private Long next;
+
+    public ChangeListResponse() {}
+
+    public ChangeListResponse(List<TaskChangeLogDTO> changes) {
+        this.changes = changes;
+    }
+
+    public List<TaskChangeLogDTO> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<TaskChangeLogDTO> changes) {
+        this.changes = changes;
+    }
+
+    public Long getNext() {
+        return next;
+    }
+
+    public void setNext(Long next) {
+        this.next = next;
+    }
+}
@@ -0,0 +1,44 @@
+package com.workcheck.dto;
+
+public class CheckStatsDTO {
+    // 任务数
+    private long tasks;
+    // 检查项全部完成的任务数（没有检查项的任务视为完成，与页面一致）
+    private long completedTasks;
+    // 检查项总数
+    private long checks;
+    // 已完成的检查项数
+    private long completedChecks;
+
+    public long getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(long tasks) {
+        this.tasks = tasks;
+    }
+
+    public long getCompletedTasks() {
+        return completedTasks;
+    }
+
+    public void setCompletedTasks(long completedTasks) {
+        this.completedTasks = completedTasks;
+    }
+
+    public long getChecks() {
+        return checks;
+    }
+
+    public void setChecks(long checks) {
+        this.checks = checks;
+    }
+
+    public long getCompletedChecks() {
+        return completedChecks;
+    }
+
+    public void setCompletedChecks(long completedChecks) {
+        this.completedChecks = completedChecks;
+    }
+}
@@ -0,0 +1,20 @@
+package com.workcheck.dto;
+
+// 检查项完成情况
+public class CheckStatsResponse extends ApiResponse {
+    private CheckStatsDTO stats;
+
+    public CheckStatsResponse() {}
+
+    public CheckStatsResponse(CheckStatsDTO stats) {
+        this.stats = stats;
+    }
+
+    public CheckStatsDTO getStats() {
+        return stats;
+    }
+
+    public void setStats(CheckStatsDTO stats) {
+        this.stats = stats;
+    }
+}
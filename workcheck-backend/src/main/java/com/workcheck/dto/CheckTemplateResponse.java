@@ -0,0 +1,33 @@
+package com.workcheck.dto;
+
+import java.util.List;
+
+// 检查项模板
+public class CheckTemplateResponse extends ApiResponse {
+    private List<String> checks;
+    // 模板版本
+    private Integer version;
+
+    public CheckTemplateResponse() {}
+
+    public CheckTemplateResponse(List<String> checks, Integer version) {
+        this.checks = checks;
+        this.version = version;
+    }
+
+    public List<String> getChecks() {
+        return checks;
+    }
+
+    public void setChecks(List<String> checks) {
+        this.checks = checks;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,51 @@
+package com.workcheck.dto;
+
+import java.util.List;
+
+// Git提交记录
+public class CommitListResponse extends ApiResponse {
+    private List<GitCommitDTO> commits;
+    private String remoteUrl;
+    private String defaultBranch;
+    private int total;
+
+    public CommitListResponse() {}
+
+    public CommitListResponse(List<GitCommitDTO> commits, String remoteUrl) {
+        this.commits = commits;
+        this.remoteUrl = remoteUrl;
+        this.total = commits.size();
+    }
+
+    public List<GitCommitDTO> getCommits() {
+        return commits;
+    }
+
+    public void setCommits(List<GitCommitDTO> commits) {
+        this.commits = commits;
+    }
+
+    public String getRemoteUrl() {
+        return remoteUrl;
+    }
+
+    public void setRemoteUrl(String remoteUrl) {
+        this.remoteUrl = remoteUrl;
+    }
+
+    public String getDefaultBranch() {
+        return defaultBranch;
+    }
+
+    public void setDefaultBranch(String defaultBranch) {
+        this.defaultBranch = defaultBranch;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+}
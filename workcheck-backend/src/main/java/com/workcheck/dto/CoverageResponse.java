@@ -0,0 +1,30 @@
+package com.workcheck.dto;
+
+// Git变更文件与任务登记文件的核对结果
+public class CoverageResponse extends ApiResponse {
+    private GitCoverageDTO coverage;
+    private int totalCommits;
+
+    public CoverageResponse() {}
+
+    public CoverageResponse(GitCoverageDTO coverage, int totalCommits) {
+        this.coverage = coverage;
+        this.totalCommits = totalCommits;
+    }
+
+    public GitCoverageDTO getCoverage() {
+        return coverage;
+    }
+
+    public void setCoverage(GitCoverageDTO coverage) {
+        this.coverage = coverage;
+    }
+
+    public int getTotalCommits() {
+        return totalCommits;
+    }
+
+    public void setTotalCommits(int totalCommits) {
+        this.totalCommits = totalCommits;
+    }
+}
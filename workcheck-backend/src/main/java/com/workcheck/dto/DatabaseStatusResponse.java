@@ -0,0 +1,21 @@
+package com.workcheck.dto;
+
+// 数据库状态
+public class DatabaseStatusResponse extends ApiResponse {
+    // 已创建的表
+    private String[] tables;
+
+    public DatabaseStatusResponse() {}
+
+    public DatabaseStatusResponse(String[] tables) {
+        this.tables = tables;
+    }
+
+    public String[] getTables() {
+        return tables;
+    }
+
+    public void setTables(String[] tables) {
+        this.tables = tables;
+    }
+}
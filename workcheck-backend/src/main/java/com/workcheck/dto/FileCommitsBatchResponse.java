@@ -0,0 +1,63 @@
+package com.workcheck.dto;
+
+import java.util.List;
+import java.util.Map;
+
+// 多个文件的Git提交记录
+public class FileCommitsBatchResponse extends ApiResponse {
+    // 文件 -> 提交记录
+    private Map<String, List<GitCommitDTO>> files;
+    private String remoteUrl;
+    private String defaultBranch;
+    private int totalFiles;
+    private int totalCommits;
+
+    public FileCommitsBatchResponse() {}
+
+    public FileCommitsBatchResponse(Map<String, List<GitCommitDTO>> files, String remoteUrl, String defaultBranch, int totalCommits) {
+        this.files = files;
+        this.remoteUrl = remoteUrl;
+        this.defaultBranch = defaultBranch;
+        this.totalCommits = totalCommits;
+    }
+
+    public Map<String, List<GitCommitDTO>> getFiles() {
+        return files;
+    }
+
+    public void setFiles(Map<String, List<GitCommitDTO>> files) {
+        this.files = files;
+    }
+
+    public String getRemoteUrl() {
+        return remoteUrl;
+    }
+
+    public void setRemoteUrl(String remoteUrl) {
+        this.remoteUrl = remoteUrl;
+    }
+
+    public String getDefaultBranch() {
+        return defaultBranch;
+    }
+
+    public void setDefaultBranch(String defaultBranch) {
+        this.defaultBranch = defaultBranch;
+    }
+
+    public int getTotalFiles() {
+        return totalFiles;
+    }
+
+    public void setTotalFiles(int totalFiles) {
+        this.totalFiles = totalFiles;
+    }
+
+    public int getTotalCommits() {
+        return totalCommits;
+    }
+
+    public void setTotalCommits(int totalCommits) {
+        this.totalCommits = totalCommits;
+    }
+}
@@ -0,0 +1,77 @@
+package com.workcheck.dto;
+
+public class FileDiffDTO {
+    private String content;
+    private boolean newFile;
+    private boolean binary;
+    private boolean truncated;
+    private int offset;
+    private int lineCount;
+    private boolean hasMore;
+
+    public FileDiffDTO() {}
+
+    public FileDiffDTO(String content) {
+        this.content = content;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public boolean isNewFile() {
+        return newFile;
+    }
+
+    public void setNewFile(boolean newFile) {
+        this.newFile = newFile;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public void setBinary(boolean binary) {
+        this.binary = binary;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public void setLineCount(int lineCount) {
+        this.lineCount = lineCount;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public Integer getNextOffset() {
+        return hasMore ? offset + lineCount : null;
+    }
+}
@@ -0,0 +1,43 @@
+package com.workcheck.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+// 文件在某次提交中的内容（分页），差异各字段直接输出在响应顶层
+public class FileDiffResponse extends ApiResponse {
+    @JsonUnwrapped
+    private FileDiffDTO diff;
+    private String commitHash;
+    private String filePath;
+
+    public FileDiffResponse() {}
+
+    public FileDiffResponse(FileDiffDTO diff, String commitHash, String filePath) {
+        this.diff = diff;
+        this.commitHash = commitHash;
+        this.filePath = filePath;
+    }
+
+    public FileDiffDTO getDiff() {
+        return diff;
+    }
+
+    public void setDiff(FileDiffDTO diff) {
+        this.diff = diff;
+    }
+
+    public String getCommitHash() {
+        return commitHash;
+    }
+
+    public void setCommitHash(String commitHash) {
+        this.commitHash = commitHash;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+}
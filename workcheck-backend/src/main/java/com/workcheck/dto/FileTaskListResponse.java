@@ -0,0 +1,32 @@
+package com.workcheck.dto;
+
+import java.util.List;
+
+// 登记过指定文件的任务
+public class FileTaskListResponse extends ApiResponse {
+    private List<FileTaskDTO> tasks;
+    private int total;
+
+    public FileTaskListResponse() {}
+
+    public FileTaskListResponse(List<FileTaskDTO> tasks) {
+        this.tasks = tasks;
+        this.total = tasks.size();
+    }
+
+    public List<FileTaskDTO> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<FileTaskDTO> tasks) {
+        this.tasks = tasks;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+}
@@ -8,6 +8,9 @@ public class GitCommitDTO {
     private String date;
     private String message;
     private List<String> files;
+    private List<GitFileStatDTO> fileStats;
+    private int additions;
+    private int deletions;
 
     public GitCommitDTO() {}
 
@@ -59,6 +62,30 @@ public class GitCommitDTO {
         this.files = files;
     }
 
+    public List<GitFileStatDTO> getFileStats() {
+        return fileStats;
+    }
+
+    public void setFileStats(List<GitFileStatDTO> fileStats) {
+        this.fileStats = fileStats;
+    }
+
+    public int getAdditions() {
+        return additions;
+    }
+
+    public void setAdditions(int additions) {
+        this.additions = additions;
+    }
+
+    public int getDeletions() {
+        return deletions;
+    }
+
+    public void setDeletions(int deletions) {
+        this.deletions = deletions;
+    }
+
     public String getShortHash() {
         return hash != null && hash.length() > 7 ? hash.substring(0, 7) : hash;
     }
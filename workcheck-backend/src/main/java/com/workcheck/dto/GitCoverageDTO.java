@@ -0,0 +1,53 @@
+package com.workcheck.dto;
+
+import java.util.List;
+
+public class GitCoverageDTO {
+    private int changedCount;
+    private int listedCount;
+    private int coveredCount;
+    private List<String> changedButUnlisted;
+    private List<String> listedButUnchanged;
+
+    public GitCoverageDTO() {}
+
+    public int getChangedCount() {
+        return changedCount;
+    }
+
+    public void setChangedCount(int changedCount) {
+        this.changedCount = changedCount;
+    }
+
+    public int getListedCount() {
+        return listedCount;
+    }
+
+    public void setListedCount(int listedCount) {
+        this.listedCount = listedCount;
+    }
+
+    public int getCoveredCount() {
+        return coveredCount;
+    }
+
+    public void setCoveredCount(int coveredCount) {
+        this.coveredCount = coveredCount;
+    }
+
+    public List<String> getChangedButUnlisted() {
+        return changedButUnlisted;
+    }
+
+    public void setChangedButUnlisted(List<String> changedButUnlisted) {
+        this.changedButUnlisted = changedButUnlisted;
+    }
+
+    public List<String> getListedButUnchanged() {
+        return listedButUnchanged;
+    }
+
+    public void setListedButUnchanged(List<String> listedButUnchanged) {
+        this.listedButUnchanged = listedButUnchanged;
+    }
+}
@@ -0,0 +1,49 @@
+package com.workcheck.dto;
+
+public class GitFileStatDTO {
+    private String path;
+    private Integer additions;
+    private Integer deletions;
+    private boolean binary;
+
+    public GitFileStatDTO() {}
+
+    public GitFileStatDTO(String path, Integer additions, Integer deletions, boolean binary) {
+        this.path = path;
+        this.additions = additions;
+        this.deletions = deletions;
+        this.binary = binary;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public Integer getAdditions() {
+        return additions;
+    }
+
+    public void setAdditions(Integer additions) {
+        this.additions = additions;
+    }
+
+    public Integer getDeletions() {
+        return deletions;
+    }
+
+    public void setDeletions(Integer deletions) {
+        this.deletions = deletions;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public void setBinary(boolean binary) {
+        this.binary = binary;
+    }
+}
@@ -0,0 +1,63 @@
+package com.workcheck.dto;
+
+public class GitRepositoryDTO {
+    private Long id;
+    private String name;
+    private String path;
+    private String remoteUrl;
+    private String defaultBranch;
+
+    public GitRepositoryDTO() {}
+
+    public GitRepositoryDTO(Long id, String name, String path, String remoteUrl, String defaultBranch) {
+        this.id = id;
+        this.name = name;
+        this.path = path;
+        this.remoteUrl = remoteUrl;
+        this.defaultBranch = defaultBranch;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getRemoteUrl() {
+        return remoteUrl;
+    }
+
+    public void setRemoteUrl(String remoteUrl) {
+        this.remoteUrl = remoteUrl;
+    }
+
+    public String getDefaultBranch() {
+        return defaultBranch;
+    }
+
+    public void setDefaultBranch(String defaultBranch) {
+        this.defaultBranch = defaultBranch;
+    }
+
+    public boolean isRegistered() {
+        return id != null;
+    }
+}
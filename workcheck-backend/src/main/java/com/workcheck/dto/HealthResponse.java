@@ -0,0 +1,67 @@
+package com.workcheck.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+// 健康检查
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HealthResponse {
+    private String status = "OK";
+    private String message = "WorkCheck API is running";
+    private long timestamp = System.currentTimeMillis();
+    // 启动耗时，见 StartupTimer
+    private Map<String, Object> startup;
+    // 处理本次请求的线程是否为虚拟线程
+    private boolean virtualThreads;
+    // 读写分离状态，未开启时不输出
+    private Map<String, Object> readReplica;
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public Map<String, Object> getStartup() {
+        return startup;
+    }
+
+    public void setStartup(Map<String, Object> startup) {
+        this.startup = startup;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public Map<String, Object> getReadReplica() {
+        return readReplica;
+    }
+
+    public void setReadReplica(Map<String, Object> readReplica) {
+        this.readReplica = readReplica;
+    }
+}
@@ -0,0 +1,22 @@
+package com.workcheck.dto;
+
+import java.util.List;
+
+// 月份列表
+public class MonthListResponse extends ApiResponse {
+    private List<String> months;
+
+    public MonthListResponse() {}
+
+    public MonthListResponse(List<String> months) {
+        this.months = months;
+    }
+
+    public List<String> getMonths() {
+        return months;
+    }
+
+    public void setMonths(List<String> months) {
+        this.months = months;
+    }
+}
@@ -0,0 +1,32 @@
+package com.workcheck.dto;
+
+import java.util.List;
+
+// 登记过的文件路径
+public class PathListResponse extends ApiResponse {
+    private List<String> paths;
+    private int total;
+
+    public PathListResponse() {}
+
+    public PathListResponse(List<String> paths) {
+        this.paths = paths;
+        this.total = paths.size();
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public void setPaths(List<String> paths) {
+        this.paths = paths;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,30 @@
+package com.workcheck.dto;
+
+// 写后保存模式下的保存结果：已写入保存日志，稍后写入数据库
+public class QueuedSaveResponse extends ApiResponse {
+    private boolean queued = true;
+    // 保存序号
+    private long seq;
+
+    public QueuedSaveResponse() {}
+
+    public QueuedSaveResponse(long seq) {
+        this.seq = seq;
+    }
+
+    public boolean isQueued() {
+        return queued;
+    }
+
+    public void setQueued(boolean queued) {
+        this.queued = queued;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+}
@@ -0,0 +1,44 @@
+package com.workcheck.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// 指定路径是否为Git仓库
+public class RepositoryCheckResponse extends ApiResponse {
+    @JsonProperty("isRepository")
+    private boolean repository;
+    private String remoteUrl;
+    private Long repoId;
+
+    public RepositoryCheckResponse() {}
+
+    public RepositoryCheckResponse(boolean repository, String remoteUrl, Long repoId) {
+        this.repository = repository;
+        this.remoteUrl = remoteUrl;
+        this.repoId = repoId;
+    }
+
+    @JsonProperty("isRepository")
+    public boolean isRepository() {
+        return repository;
+    }
+
+    public void setRepository(boolean repository) {
+        this.repository = repository;
+    }
+
+    public String getRemoteUrl() {
+        return remoteUrl;
+    }
+
+    public void setRemoteUrl(String remoteUrl) {
+        this.remoteUrl = remoteUrl;
+    }
+
+    public Long getRepoId() {
+        return repoId;
+    }
+
+    public void setRepoId(Long repoId) {
+        this.repoId = repoId;
+    }
+}
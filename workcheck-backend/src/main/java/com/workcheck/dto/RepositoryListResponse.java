@@ -0,0 +1,32 @@
+package com.workcheck.dto;
+
+import java.util.List;
+
+// 已登记的Git仓库
+public class RepositoryListResponse extends ApiResponse {
+    private List<GitRepositoryDTO> repositories;
+    private int total;
+
+    public RepositoryListResponse() {}
+
+    public RepositoryListResponse(List<GitRepositoryDTO> repositories) {
+        this.repositories = repositories;
+        this.total = repositories.size();
+    }
+
+    public List<GitRepositoryDTO> getRepositories() {
+        return repositories;
+    }
+
+    public void setRepositories(List<GitRepositoryDTO> repositories) {
+        this.repositories = repositories;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,20 @@
+package com.workcheck.dto;
+
+// 单个Git仓库
+public class RepositoryResponse extends ApiResponse {
+    private GitRepositoryDTO repository;
+
+    public RepositoryResponse() {}
+
+    public RepositoryResponse(GitRepositoryDTO repository) {
+        this.repository = repository;
+    }
+
+    public GitRepositoryDTO getRepository() {
+        return repository;
+    }
+
+    public void setRepository(GitRepositoryDTO repository) {
+        this.repository = repository;
+    }
+}
@@ -0,0 +1,44 @@
+package com.workcheck.dto;
+
+import java.util.List;
+
+// 全文检索结果
+public class SearchResponse extends ApiResponse {
+    private List<TaskSearchHitDTO> hits;
+    // 匹配的任务总数
+    private long total;
+    // 检索耗时（毫秒）
+    private double tookMs;
+
+    public SearchResponse() {}
+
+    public SearchResponse(List<TaskSearchHitDTO> hits, long total, double tookMs) {
+        this.hits = hits;
+        this.total = total;
+        this.tookMs = tookMs;
+    }
+
+    public List<TaskSearchHitDTO> getHits() {
+        return hits;
+    }
+
+    public void setHits(List<TaskSearchHitDTO> hits) {
+        this.hits = hits;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public double getTookMs() {
+        return tookMs;
+    }
+
+    public void setTookMs(double tookMs) {
+        this.tookMs = tookMs;
+    }
+}
@@ -0,0 +1,19 @@
+package com.workcheck.dto;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+
+import java.util.Map;
+
+// 运行状态（写后保存队列、保存锁等），各项直接输出在响应顶层
+public class StatsResponse extends ApiResponse {
+    private final Map<String, Object> stats;
+
+    public StatsResponse(Map<String, Object> stats) {
+        this.stats = stats;
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,44 @@
+package com.workcheck.dto;
+
+public class TaskChangeDTO {
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+
+    private String type;
+    private String taskId;
+    // created：完整任务；updated：基本字段 + 有变化的文件列表/检查项；deleted：为空
+    private TaskDTO task;
+
+    public TaskChangeDTO() {}
+
+    public TaskChangeDTO(String type, String taskId, TaskDTO task) {
+        this.type = type;
+        this.taskId = taskId;
+        this.task = task;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(String taskId) {
+        this.taskId = taskId;
+    }
+
+    public TaskDTO getTask() {
+        return task;
+    }
+
+    public void setTask(TaskDTO task) {
+        this.task = task;
+    }
+}
@@ -9,6 +9,7 @@ public class TaskDTO {
     private String risk;
     private String userName;
     private String month;
+    private Long version;
     private List<FileDTO> files;
     private List<CheckDTO> checks;
 
@@ -61,6 +62,14 @@ public class TaskDTO {
         this.month = month;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<FileDTO> getFiles() {
         return files;
     }
@@ -0,0 +1,55 @@
+package com.workcheck.dto;
+
+import java.util.List;
+
+public class TaskDeltaDTO {
+    // 当前版本号，客户端下次以此作为 since
+    private long version;
+    // 为 true 时 tasks 是完整列表（since 无效或晚于服务端版本），客户端应整体替换
+    private boolean full;
+    // 指定版本之后新增或修改的任务
+    private List<TaskDTO> tasks;
+    // 指定版本之后删除的任务编号
+    private List<String> deleted;
+
+    public TaskDeltaDTO() {}
+
+    public TaskDeltaDTO(long version, boolean full, List<TaskDTO> tasks, List<String> deleted) {
+        this.version = version;
+        this.full = full;
+        this.tasks = tasks;
+        this.deleted = deleted;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+
+    public List<TaskDTO> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<TaskDTO> tasks) {
+        this.tasks = tasks;
+    }
+
+    public List<String> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<String> deleted) {
+        this.deleted = deleted;
+    }
+}
@@ -0,0 +1,74 @@
+package com.workcheck.dto;
+
+import java.util.Date;
+import java.util.List;
+
+// 任务列表（加载、保存、回放）
+public class TasksResponse extends ApiResponse {
+    private List<TaskDTO> tasks;
+    // 当前版本号，客户端下次以此作为 since
+    private Long version;
+    // 增量加载时：为 true 表示 tasks 是完整列表
+    private Boolean full;
+    // 增量加载时：指定版本之后删除的任务编号
+    private List<String> deleted;
+    // 回放时：任务数
+    private Integer total;
+    // 按时间回放时：回放的时间点
+    private Date at;
+
+    public TasksResponse() {}
+
+    public TasksResponse(List<TaskDTO> tasks, Long version) {
+        this.tasks = tasks;
+        this.version = version;
+    }
+
+    public List<TaskDTO> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<TaskDTO> tasks) {
+        this.tasks = tasks;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Boolean getFull() {
+        return full;
+    }
+
+    public void setFull(Boolean full) {
+        this.full = full;
+    }
+
+    public List<String> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<String> deleted) {
+        this.deleted = deleted;
+    }
+
+    public Integer getTotal() {
+        return total;
+    }
+
+    public void setTotal(Integer total) {
+        this.total = total;
+    }
+
+    public Date getAt() {
+        return at;
+    }
+
+    public void setAt(Date at) {
+        this.at = at;
+    }
+}
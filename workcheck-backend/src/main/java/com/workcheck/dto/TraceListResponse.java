@@ -0,0 +1,43 @@
+package com.workcheck.dto;
+
+import java.util.List;
+
+// 最近采样的请求跟踪
+public class TraceListResponse extends ApiResponse {
+    private List<TraceSummaryDTO> traces;
+    private int total;
+    // 采样率
+    private double sampleRate;
+
+    public TraceListResponse() {}
+
+    public TraceListResponse(List<TraceSummaryDTO> traces, double sampleRate) {
+        this.traces = traces;
+        this.total = traces.size();
+        this.sampleRate = sampleRate;
+    }
+
+    public List<TraceSummaryDTO> getTraces() {
+        return traces;
+    }
+
+    public void setTraces(List<TraceSummaryDTO> traces) {
+        this.traces = traces;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+}
@@ -0,0 +1,22 @@
+package com.workcheck.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+// 单个请求跟踪，resourceSpans 为 OpenTelemetry（OTLP JSON）格式，可直接导入支持 OTLP 的工具
+public class TraceResponse extends ApiResponse {
+    private JsonNode resourceSpans;
+
+    public TraceResponse() {}
+
+    public TraceResponse(JsonNode resourceSpans) {
+        this.resourceSpans = resourceSpans;
+    }
+
+    public JsonNode getResourceSpans() {
+        return resourceSpans;
+    }
+
+    public void setResourceSpans(JsonNode resourceSpans) {
+        this.resourceSpans = resourceSpans;
+    }
+}
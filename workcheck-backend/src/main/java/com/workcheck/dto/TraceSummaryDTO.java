@@ -0,0 +1,81 @@
+package com.workcheck.dto;
+
+import java.util.Date;
+
+// 请求跟踪概要（/api/traces 列表）
+public class TraceSummaryDTO {
+    private String traceId;
+    // 根跨度名称，如 GET /api/load
+    private String name;
+    private Date startTime;
+    private double durationMs;
+    private int spanCount;
+    // 超过每个请求的跨度上限而未记录的跨度数
+    private int droppedSpans;
+    private Integer statusCode;
+    private boolean error;
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public void setTraceId(String traceId) {
+        this.traceId = traceId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Date getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Date startTime) {
+        this.startTime = startTime;
+    }
+
+    public double getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(double durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public int getSpanCount() {
+        return spanCount;
+    }
+
+    public void setSpanCount(int spanCount) {
+        this.spanCount = spanCount;
+    }
+
+    public int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    public void setDroppedSpans(int droppedSpans) {
+        this.droppedSpans = droppedSpans;
+    }
+
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+
+    public void setStatusCode(Integer statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public void setError(boolean error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,22 @@
+package com.workcheck.dto;
+
+import java.util.List;
+
+// 用户列表
+public class UserListResponse extends ApiResponse {
+    private List<String> users;
+
+    public UserListResponse() {}
+
+    public UserListResponse(List<String> users) {
+        this.users = users;
+    }
+
+    public List<String> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<String> users) {
+        this.users = users;
+    }
+}
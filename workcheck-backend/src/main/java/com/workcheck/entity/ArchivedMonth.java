@@ -0,0 +1,120 @@
+package com.workcheck.entity;
+
+import javax.persistence.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import java.util.Date;
+
+// 已归档月份的任务快照（gzip压缩的任务列表JSON），归档后该月份的任务不再占用热表
+@Entity
+@Table(name = "archived_months",
+        uniqueConstraints = @UniqueConstraint(name = "uk_archived_month", columnNames = {"user_name", "month"}))
+@EntityListeners(AuditingEntityListener.class)
+public class ArchivedMonth {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_name", nullable = false, length = 100)
+    private String userName;
+
+    @Column(name = "month", nullable = false, length = 10)
+    private String month;
+
+    // 归档时的版本号，增量加载和保存时延续
+    @Column(name = "version", nullable = false)
+    private Long version = 0L;
+
+    @Column(name = "task_count", nullable = false)
+    private Integer taskCount = 0;
+
+    // 压缩前的JSON字节数
+    @Column(name = "raw_bytes", nullable = false)
+    private Integer rawBytes = 0;
+
+    // 压缩后的字节数
+    @Column(name = "stored_bytes", nullable = false)
+    private Integer storedBytes = 0;
+
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private byte[] payload;
+
+    @CreatedDate
+    @Column(name = "archived_at")
+    private Date archivedAt;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Integer getTaskCount() {
+        return taskCount;
+    }
+
+    public void setTaskCount(Integer taskCount) {
+        this.taskCount = taskCount;
+    }
+
+    public Integer getRawBytes() {
+        return rawBytes;
+    }
+
+    public void setRawBytes(Integer rawBytes) {
+        this.rawBytes = rawBytes;
+    }
+
+    public Integer getStoredBytes() {
+        return storedBytes;
+    }
+
+    public void setStoredBytes(Integer storedBytes) {
+        this.storedBytes = storedBytes;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+
+    public Date getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(Date archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
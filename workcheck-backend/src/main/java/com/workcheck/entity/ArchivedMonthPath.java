@@ -0,0 +1,52 @@
+package com.workcheck.entity;
+
+import javax.persistence.*;
+
+// 归档月份中登记过的文件（路径字典ID），按文件反查任务时定位归档快照
+@Entity
+@Table(name = "archived_month_paths",
+        indexes = @Index(name = "idx_archived_path_id", columnList = "path_id"))
+public class ArchivedMonthPath {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "archive_id", nullable = false)
+    private Long archiveId;
+
+    @Column(name = "path_id", nullable = false)
+    private Long pathId;
+
+    public ArchivedMonthPath() {}
+
+    public ArchivedMonthPath(Long archiveId, Long pathId) {
+        this.archiveId = archiveId;
+        this.pathId = pathId;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getArchiveId() {
+        return archiveId;
+    }
+
+    public void setArchiveId(Long archiveId) {
+        this.archiveId = archiveId;
+    }
+
+    public Long getPathId() {
+        return pathId;
+    }
+
+    public void setPathId(Long pathId) {
+        this.pathId = pathId;
+    }
+}
@@ -25,6 +25,10 @@ public class CheckTemplate {
     @OneToMany(mappedBy = "template", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CheckTemplateItem> items;
 
+    // 模板版本，检查项增删或调整顺序时递增
+    @Column(name = "version")
+    private Integer version = 1;
+
     @Column(name = "is_default")
     private Boolean isDefault = false;
 
@@ -68,6 +72,14 @@ public class CheckTemplate {
         }
     }
 
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     public Boolean getIsDefault() {
         return isDefault;
     }
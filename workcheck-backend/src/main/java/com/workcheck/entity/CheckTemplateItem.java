@@ -20,6 +20,13 @@ public class CheckTemplateItem {
     @Column(name = "sort_order", nullable = false)
     private Integer sortOrder;
 
+    // 检查项文本不修改：模板调整时旧检查项标记停用版本并保留，历史任务仍能解析出原文本
+    @Column(name = "since_version")
+    private Integer sinceVersion;
+
+    @Column(name = "retired_version")
+    private Integer retiredVersion;
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -52,4 +59,24 @@ public class CheckTemplateItem {
     public void setSortOrder(Integer sortOrder) {
         this.sortOrder = sortOrder;
     }
+
+    public Integer getSinceVersion() {
+        return sinceVersion;
+    }
+
+    public void setSinceVersion(Integer sinceVersion) {
+        this.sinceVersion = sinceVersion;
+    }
+
+    public Integer getRetiredVersion() {
+        return retiredVersion;
+    }
+
+    public void setRetiredVersion(Integer retiredVersion) {
+        this.retiredVersion = retiredVersion;
+    }
+
+    public boolean isActive() {
+        return retiredVersion == null;
+    }
 }
\ No newline at end of file
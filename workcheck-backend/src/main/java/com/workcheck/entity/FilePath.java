@@ -0,0 +1,56 @@
+package com.workcheck.entity;
+
+import org.hibernate.annotations.Type;
+
+import javax.persistence.*;
+
+// 文件路径字典，task_files 通过 path_id 引用规范化后的路径
+@Entity
+@Table(name = "file_paths")
+public class FilePath {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 规范化路径的MD5，唯一索引，按完整路径查找时使用
+    @Column(name = "path_hash", nullable = false, length = 32, unique = true)
+    @Type(type = "com.workcheck.entity.FixedCharType")
+    private String pathHash;
+
+    // 规范化路径，按目录前缀查找时使用（数据库上建前缀索引）
+    @Column(name = "path", nullable = false, length = 1000)
+    private String path;
+
+    public FilePath() {}
+
+    public FilePath(String pathHash, String path) {
+        this.pathHash = pathHash;
+        this.path = path;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getPathHash() {
+        return pathHash;
+    }
+
+    public void setPathHash(String pathHash) {
+        this.pathHash = pathHash;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+}
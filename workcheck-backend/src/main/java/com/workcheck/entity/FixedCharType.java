@@ -0,0 +1,18 @@
+package com.workcheck.entity;
+
+import org.hibernate.type.AbstractSingleColumnStandardBasicType;
+import org.hibernate.type.descriptor.java.StringTypeDescriptor;
+import org.hibernate.type.descriptor.sql.CharTypeDescriptor;
+
+// 定长字符串（CHAR 列，如MD5），表结构校验（ddl-auto: validate）时与 VARCHAR 区分
+public class FixedCharType extends AbstractSingleColumnStandardBasicType<String> {
+
+    public FixedCharType() {
+        super(CharTypeDescriptor.INSTANCE, StringTypeDescriptor.INSTANCE);
+    }
+
+    @Override
+    public String getName() {
+        return "fixed_char";
+    }
+}
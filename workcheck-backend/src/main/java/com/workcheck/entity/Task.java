@@ -31,6 +31,17 @@ public class Task {
     @Column(name = "month", length = 10)
     private String month;
 
+    // 变更版本号，同一用户月份内递增，内容未变化的任务保存时保留原版本
+    @Column(name = "version", nullable = false)
+    private Long version = 0L;
+
+    // 位图模式下的检查项状态：第i位表示模板该版本第i个检查项（按检查项ID排列）是否完成，为空时检查项按行保存在 task_checks
+    @Column(name = "check_mask")
+    private Long checkMask;
+
+    @Column(name = "check_template_version")
+    private Integer checkTemplateVersion;
+
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<TaskFile> files;
 
@@ -94,6 +105,30 @@ public class Task {
         this.month = month;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getCheckMask() {
+        return checkMask;
+    }
+
+    public void setCheckMask(Long checkMask) {
+        this.checkMask = checkMask;
+    }
+
+    public Integer getCheckTemplateVersion() {
+        return checkTemplateVersion;
+    }
+
+    public void setCheckTemplateVersion(Integer checkTemplateVersion) {
+        this.checkTemplateVersion = checkTemplateVersion;
+    }
+
     public List<TaskFile> getFiles() {
         return files;
     }
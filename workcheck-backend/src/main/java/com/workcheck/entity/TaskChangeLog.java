@@ -0,0 +1,131 @@
+package com.workcheck.entity;
+
+import javax.persistence.*;
+import java.util.Date;
+
+// 任务变更日志，只追加不修改：每次保存记录新增、修改和删除的任务（修改后的完整任务，含文件和检查项）
+// 写入走 JdbcTemplate 批量插入，实体只用于查询和建表
+@Entity
+@Table(name = "task_change_log",
+        indexes = {
+                @Index(name = "idx_log_user_month_time", columnList = "user_name, month, changed_at"),
+                @Index(name = "idx_log_user_month_version", columnList = "user_name, month, version")
+        })
+public class TaskChangeLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_name", nullable = false, length = 100)
+    private String userName;
+
+    @Column(name = "month", nullable = false, length = 10)
+    private String month;
+
+    // 保存后的版本号
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "task_id", nullable = false, length = 50)
+    private String taskId;
+
+    // created / updated / deleted，snapshot 表示开始记录日志时已存在的任务
+    @Column(name = "change_type", nullable = false, length = 20)
+    private String changeType;
+
+    @Column(name = "operator", length = 100)
+    private String operator;
+
+    @Column(name = "client_id", length = 100)
+    private String clientId;
+
+    // 变更后的完整任务JSON，删除时为空
+    @Column(name = "payload", columnDefinition = "MEDIUMTEXT")
+    private String payload;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "changed_at", nullable = false)
+    private Date changedAt;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(String taskId) {
+        this.taskId = taskId;
+    }
+
+    public String getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(String changeType) {
+        this.changeType = changeType;
+    }
+
+    public String getOperator() {
+        return operator;
+    }
+
+    public void setOperator(String operator) {
+        this.operator = operator;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Date getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(Date changedAt) {
+        this.changedAt = changedAt;
+    }
+}
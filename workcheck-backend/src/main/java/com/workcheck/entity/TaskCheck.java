@@ -6,6 +6,9 @@ import javax.persistence.*;
 @Table(name = "task_checks")
 public class TaskCheck {
 
+    public static final String STATUS_DONE = "完成";
+    public static final String STATUS_TODO = "未完成";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -14,10 +17,17 @@ public class TaskCheck {
     @JoinColumn(name = "task_id")
     private Task task;
 
-    @Column(name = "check_item", length = 200, nullable = false)
+    // 引用模板检查项时只保存检查项ID和完成标记，文本从模板解析；自定义检查项才保存文本和状态
+    @Column(name = "template_item_id")
+    private Long templateItemId;
+
+    @Column(name = "done")
+    private Boolean done;
+
+    @Column(name = "check_item", length = 200)
     private String checkItem;
 
-    @Column(name = "status", length = 20, nullable = false)
+    @Column(name = "status", length = 20)
     private String status; // "完成" 或 "未完成"
 
     @Column(name = "sort_order")
@@ -40,6 +50,22 @@ public class TaskCheck {
         this.task = task;
     }
 
+    public Long getTemplateItemId() {
+        return templateItemId;
+    }
+
+    public void setTemplateItemId(Long templateItemId) {
+        this.templateItemId = templateItemId;
+    }
+
+    public Boolean getDone() {
+        return done;
+    }
+
+    public void setDone(Boolean done) {
+        this.done = done;
+    }
+
     public String getCheckItem() {
         return checkItem;
     }
@@ -0,0 +1,56 @@
+package com.workcheck.entity;
+
+import javax.persistence.*;
+
+// 月份的增量加载下限：从归档恢复的月份没有归档前的墓碑，早于该版本的增量加载返回完整列表
+@Entity
+@Table(name = "task_delta_floors",
+        uniqueConstraints = @UniqueConstraint(name = "uk_delta_floor", columnNames = {"user_name", "month"}))
+public class TaskDeltaFloor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_name", nullable = false, length = 100)
+    private String userName;
+
+    @Column(name = "month", nullable = false, length = 10)
+    private String month;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -3,7 +3,7 @@ package com.workcheck.entity;
 import javax.persistence.*;
 
 @Entity
-@Table(name = "task_files")
+@Table(name = "task_files", indexes = @Index(name = "idx_path_id", columnList = "path_id"))
 public class TaskFile {
 
     @Id
@@ -20,6 +20,10 @@ public class TaskFile {
     @Column(name = "test_status", length = 100)
     private String test;
 
+    // 路径字典ID，按文件反查任务时使用
+    @Column(name = "path_id")
+    private Long pathId;
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -45,6 +49,14 @@ public class TaskFile {
         this.file = file;
     }
 
+    public Long getPathId() {
+        return pathId;
+    }
+
+    public void setPathId(Long pathId) {
+        this.pathId = pathId;
+    }
+
     public String getTest() {
         return test;
     }
@@ -0,0 +1,22 @@
+package com.workcheck.event;
+
+/**
+ * 检查项模板调整后发布
+ */
+public class CheckTemplateChangedEvent {
+    private final Long templateId;
+    private final int version;
+
+    public CheckTemplateChangedEvent(Long templateId, int version) {
+        this.templateId = templateId;
+        this.version = version;
+    }
+
+    public Long getTemplateId() {
+        return templateId;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,40 @@
+package com.workcheck.event;
+
+/**
+ * 写后保存多次重试仍失败、移入死信时发布，通知订阅该用户月份的页面这次保存没有写入
+ */
+public class SaveFailedEvent {
+    private final String userName;
+    private final String month;
+    private final String clientId;
+    private final long seq;
+    private final String error;
+
+    public SaveFailedEvent(String userName, String month, String clientId, long seq, String error) {
+        this.userName = userName;
+        this.month = month;
+        this.clientId = clientId;
+        this.seq = seq;
+        this.error = error;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,44 @@
+package com.workcheck.event;
+
+import com.workcheck.dto.TaskChangeDTO;
+
+import java.util.List;
+
+/**
+ * 某用户某月份的任务保存后发布，只包含有变化的任务
+ */
+public class TasksChangedEvent {
+    private final String userName;
+    private final String month;
+    private final String clientId;
+    private final long version;
+    private final List<TaskChangeDTO> changes;
+
+    public TasksChangedEvent(String userName, String month, String clientId, long version, List<TaskChangeDTO> changes) {
+        this.userName = userName;
+        this.month = month;
+        this.clientId = clientId;
+        this.version = version;
+        this.changes = changes;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<TaskChangeDTO> getChanges() {
+        return changes;
+    }
+}
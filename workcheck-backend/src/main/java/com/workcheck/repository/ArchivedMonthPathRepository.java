@@ -0,0 +1,22 @@
+package com.workcheck.repository;
+
+import com.workcheck.entity.ArchivedMonthPath;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedMonthPathRepository extends JpaRepository<ArchivedMonthPath, Long> {
+
+    @Query("SELECT DISTINCT p.archiveId FROM ArchivedMonthPath p WHERE p.pathId IN :pathIds")
+    List<Long> findArchiveIdsByPathIds(@Param("pathIds") Collection<Long> pathIds);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedMonthPath p WHERE p.archiveId = :archiveId")
+    int deleteByArchiveId(@Param("archiveId") Long archiveId);
+}
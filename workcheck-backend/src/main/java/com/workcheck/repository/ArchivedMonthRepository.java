@@ -0,0 +1,32 @@
+package com.workcheck.repository;
+
+import com.workcheck.entity.ArchivedMonth;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedMonthRepository extends JpaRepository<ArchivedMonth, Long> {
+
+    Optional<ArchivedMonth> findByUserNameAndMonth(String userName, String month);
+
+    List<ArchivedMonth> findByIdIn(Collection<Long> ids);
+
+    // 归档列表不加载快照内容
+    @Query("SELECT a.id, a.userName, a.month, a.version, a.taskCount, a.rawBytes, a.storedBytes, a.archivedAt " +
+           "FROM ArchivedMonth a ORDER BY a.month DESC, a.userName")
+    List<Object[]> findSummaries();
+
+    @Query("SELECT a.userName, a.month FROM ArchivedMonth a")
+    List<Object[]> findUserMonths();
+
+    @Modifying
+    @Query("DELETE FROM ArchivedMonth a WHERE a.id = :id")
+    int deleteArchive(@Param("id") Long id);
+}
@@ -1,6 +1,7 @@
 package com.workcheck.repository;
 
 import com.workcheck.entity.CheckTemplate;
+import com.workcheck.entity.CheckTemplateItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -16,4 +17,7 @@ public interface CheckTemplateRepository extends JpaRepository<CheckTemplate, Lo
 
     @Query("SELECT t FROM CheckTemplate t ORDER BY t.isDefault DESC, t.createdAt DESC")
     List<CheckTemplate> findAllOrderedByDefaultFirst();
+
+    @Query("SELECT i FROM CheckTemplateItem i JOIN FETCH i.template")
+    List<CheckTemplateItem> findAllItems();
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.workcheck.repository;
+
+import com.workcheck.entity.FilePath;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FilePathRepository extends JpaRepository<FilePath, Long> {
+
+    Optional<FilePath> findByPathHash(String pathHash);
+
+    List<FilePath> findByPathHashIn(Collection<String> pathHashes);
+
+    // 加锁读取，可读到其他事务刚提交的记录（可重复读隔离级别下普通查询读不到）
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT p FROM FilePath p WHERE p.pathHash IN :pathHashes")
+    List<FilePath> findCurrentByPathHashIn(@Param("pathHashes") Collection<String> pathHashes);
+
+    // prefix 中的 %、_ 和 ! 需由调用方用 ! 转义
+    @Query("SELECT p FROM FilePath p WHERE p.path LIKE CONCAT(:prefix, '%') ESCAPE '!' ORDER BY p.path")
+    List<FilePath> findByPathPrefix(@Param("prefix") String prefix);
+}
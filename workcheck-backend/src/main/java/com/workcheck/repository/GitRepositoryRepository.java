@@ -0,0 +1,13 @@
+package com.workcheck.repository;
+
+import com.workcheck.entity.GitRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface GitRepositoryRepository extends JpaRepository<GitRepository, Long> {
+
+    Optional<GitRepository> findByPath(String path);
+}
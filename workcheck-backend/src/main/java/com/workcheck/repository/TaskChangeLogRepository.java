@@ -0,0 +1,34 @@
+package com.workcheck.repository;
+
+import com.workcheck.entity.TaskChangeLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface TaskChangeLogRepository extends JpaRepository<TaskChangeLog, Long> {
+
+    boolean existsByUserNameAndMonth(String userName, String month);
+
+    @Query("SELECT l FROM TaskChangeLog l WHERE l.userName = :userName AND l.month = :month ORDER BY l.id DESC")
+    List<TaskChangeLog> findRecent(@Param("userName") String userName, @Param("month") String month, Pageable pageable);
+
+    @Query("SELECT l FROM TaskChangeLog l WHERE l.userName = :userName AND l.month = :month AND l.taskId = :taskId ORDER BY l.id DESC")
+    List<TaskChangeLog> findRecentByTask(@Param("userName") String userName, @Param("month") String month,
+                                         @Param("taskId") String taskId, Pageable pageable);
+
+    @Query("SELECT l FROM TaskChangeLog l WHERE l.userName = :userName AND l.month = :month AND l.changedAt <= :at ORDER BY l.id")
+    List<TaskChangeLog> findUntil(@Param("userName") String userName, @Param("month") String month, @Param("at") Date at);
+
+    @Query("SELECT l FROM TaskChangeLog l WHERE l.userName = :userName AND l.month = :month AND l.version <= :version ORDER BY l.id")
+    List<TaskChangeLog> findUntilVersion(@Param("userName") String userName, @Param("month") String month, @Param("version") Long version);
+
+    // 增量消费：按日志ID顺序读取
+    @Query("SELECT l FROM TaskChangeLog l WHERE l.id > :after ORDER BY l.id")
+    List<TaskChangeLog> findAfter(@Param("after") Long after, Pageable pageable);
+}
@@ -0,0 +1,18 @@
+package com.workcheck.repository;
+
+import com.workcheck.entity.TaskDeltaFloor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TaskDeltaFloorRepository extends JpaRepository<TaskDeltaFloor, Long> {
+
+    Optional<TaskDeltaFloor> findByUserNameAndMonth(String userName, String month);
+
+    @Query("SELECT COALESCE(MAX(f.version), 0) FROM TaskDeltaFloor f WHERE f.userName = :userName AND f.month = :month")
+    Long findFloorVersion(@Param("userName") String userName, @Param("month") String month);
+}
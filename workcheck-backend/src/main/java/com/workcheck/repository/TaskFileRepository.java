@@ -0,0 +1,27 @@
+package com.workcheck.repository;
+
+import com.workcheck.entity.TaskFile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TaskFileRepository extends JpaRepository<TaskFile, Long> {
+
+    @Query("SELECT f FROM TaskFile f JOIN FETCH f.task t WHERE f.pathId IN :pathIds ORDER BY t.month DESC, t.userName, t.taskId")
+    List<TaskFile> findByPathIds(@Param("pathIds") Collection<Long> pathIds);
+
+    // 未关联路径字典的文件记录（升级前保存的数据）
+    @Query("SELECT f FROM TaskFile f WHERE f.pathId IS NULL AND f.file IS NOT NULL ORDER BY f.id")
+    List<TaskFile> findUnlinked(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE TaskFile f SET f.pathId = :pathId WHERE f.id = :id")
+    int updatePathId(@Param("id") Long id, @Param("pathId") Long pathId);
+}
@@ -15,9 +15,28 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
 
     List<Task> findByUserNameAndMonthOrderByCreatedAtDesc(String userName, String month);
 
+    long countByUserNameAndMonth(String userName, String month);
+
+    @Query("SELECT t.checkMask, t.checkTemplateVersion FROM Task t WHERE t.userName = :userName AND t.month = :month AND t.checkMask IS NOT NULL")
+    List<Object[]> findCheckMasks(@Param("userName") String userName, @Param("month") String month);
+
+    @Query("SELECT COUNT(c), SUM(CASE WHEN c.done = true OR c.status = '完成' THEN 1 ELSE 0 END) FROM TaskCheck c " +
+           "WHERE c.task.userName = :userName AND c.task.month = :month GROUP BY c.task.id")
+    List<Object[]> countChecksByTask(@Param("userName") String userName, @Param("month") String month);
+
     @Query("SELECT t FROM Task t WHERE t.userName = :userName AND t.month = :month ORDER BY t.createdAt DESC")
     List<Task> findTasks(@Param("userName") String userName, @Param("month") String month);
 
+    @Query("SELECT t FROM Task t WHERE t.userName = :userName AND t.month = :month AND t.version > :since ORDER BY t.createdAt DESC")
+    List<Task> findTasksSince(@Param("userName") String userName, @Param("month") String month, @Param("since") Long since);
+
+    @Query("SELECT COALESCE(MAX(t.version), 0) FROM Task t WHERE t.userName = :userName AND t.month = :month")
+    Long findMaxVersion(@Param("userName") String userName, @Param("month") String month);
+
+    // 任务数、最后更新时间和最大版本号，用于生成 ETag
+    @Query("SELECT COUNT(t), MAX(t.updatedAt), MAX(t.version) FROM Task t WHERE t.userName = :userName AND t.month = :month")
+    List<Object[]> findFingerprint(@Param("userName") String userName, @Param("month") String month);
+
     Optional<Task> findByTaskId(String taskId);
 
     @Query("SELECT DISTINCT t.userName FROM Task t")
@@ -26,6 +45,12 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT DISTINCT t.month FROM Task t ORDER BY t.month DESC")
     List<String> findDistinctMonths();
 
+    @Query("SELECT DISTINCT t.userName, t.month FROM Task t")
+    List<Object[]> findDistinctUserMonths();
+
+    @Query("SELECT DISTINCT f.file FROM TaskFile f WHERE f.task.userName = :userName AND f.task.month = :month AND f.file IS NOT NULL")
+    List<String> findDistinctFilePaths(@Param("userName") String userName, @Param("month") String month);
+
     @Modifying
     @Query("DELETE FROM Task t WHERE t.userName = :userName AND t.month = :month")
     int deleteByUserNameAndMonth(@Param("userName") String userName, @Param("month") String month);
@@ -0,0 +1,31 @@
+package com.workcheck.repository;
+
+import com.workcheck.entity.TaskTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    List<TaskTombstone> findByUserNameAndMonth(String userName, String month);
+
+    @Query("SELECT t.taskId FROM TaskTombstone t WHERE t.userName = :userName AND t.month = :month AND t.version > :since")
+    List<String> findDeletedTaskIdsSince(@Param("userName") String userName, @Param("month") String month, @Param("since") Long since);
+
+    @Query("SELECT COALESCE(MAX(t.version), 0) FROM TaskTombstone t WHERE t.userName = :userName AND t.month = :month")
+    Long findMaxVersion(@Param("userName") String userName, @Param("month") String month);
+
+    @Modifying
+    @Query("DELETE FROM TaskTombstone t WHERE t.userName = :userName AND t.month = :month")
+    int deleteByUserNameAndMonth(@Param("userName") String userName, @Param("month") String month);
+
+    @Modifying
+    @Query("DELETE FROM TaskTombstone t WHERE t.userName = :userName AND t.month = :month AND t.taskId IN :taskIds")
+    int deleteByTaskIds(@Param("userName") String userName, @Param("month") String month, @Param("taskIds") Collection<String> taskIds);
+}
@@ -0,0 +1,172 @@
+package com.workcheck.service;
+
+import com.workcheck.entity.CheckTemplateItem;
+import com.workcheck.event.CheckTemplateChangedEvent;
+import com.workcheck.repository.CheckTemplateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 检查项模板缓存
+ * 任务检查项只保存模板检查项ID，加载时从这里解析文本，保存时按文本查回ID。
+ * 模板很少调整，缓存整体替换，调整提交后失效。
+ */
+@Service
+public class CheckItemCatalog {
+
+    @Autowired
+    private CheckTemplateRepository checkTemplateRepository;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 每次失效递增，失效前开始的加载结果不再放入缓存
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 检查项文本，包括已停用的检查项
+     * @return 检查项不存在时返回null
+     */
+    public String getText(Long itemId) {
+        if (itemId == null) {
+            return null;
+        }
+        String text = current().texts.get(itemId);
+        if (text == null) {
+            // 可能是其他实例新增的检查项，重新加载一次
+            text = reload().texts.get(itemId);
+        }
+        return text;
+    }
+
+    /**
+     * 默认模板中的检查项ID，优先启用中的检查项；历史任务重新保存时仍能引用已停用的检查项
+     * @return 不是默认模板检查项时返回null
+     */
+    public Long findItemId(String text) {
+        return text == null ? null : current().itemIds.get(text);
+    }
+
+    /**
+     * 默认模板的当前版本，没有默认模板时为0
+     */
+    public int getDefaultTemplateVersion() {
+        return current().defaultVersion;
+    }
+
+    /**
+     * 默认模板某个版本的检查项布局
+     * @return 版本不存在时返回null
+     */
+    public CheckLayout getLayout(int version) {
+        Snapshot current = current();
+        if (version < 1 || version > current.defaultVersion) {
+            return null;
+        }
+        return current.layouts.computeIfAbsent(version, v -> buildLayout(current.defaultItems, v));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTemplateChanged(CheckTemplateChangedEvent event) {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : reload();
+    }
+
+    private synchronized Snapshot reload() {
+        long loadingGeneration = generation.get();
+        Map<Long, String> texts = new HashMap<>();
+        Map<String, Long> itemIds = new HashMap<>();
+        Map<String, Long> retiredIds = new HashMap<>();
+        List<ItemInfo> defaultItems = new ArrayList<>();
+        int defaultVersion = 0;
+        for (CheckTemplateItem item : checkTemplateRepository.findAllItems()) {
+            texts.put(item.getId(), item.getItemText());
+            if (Boolean.TRUE.equals(item.getTemplate().getIsDefault())) {
+                (item.isActive() ? itemIds : retiredIds).putIfAbsent(item.getItemText(), item.getId());
+                defaultItems.add(new ItemInfo(item));
+                defaultVersion = item.getTemplate().getVersion() != null ? item.getTemplate().getVersion() : 1;
+            }
+        }
+        retiredIds.forEach(itemIds::putIfAbsent);
+        defaultItems.sort(Comparator.comparing(info -> info.id));
+        Snapshot loaded = new Snapshot(texts, itemIds, defaultItems, defaultVersion);
+        if (generation.get() == loadingGeneration) {
+            snapshot = loaded;
+        }
+        return loaded;
+    }
+
+    /**
+     * 某版本包含的检查项：加入版本不晚于该版本，且在该版本时尚未停用
+     */
+    private static CheckLayout buildLayout(List<ItemInfo> defaultItems, int version) {
+        List<ItemInfo> items = new ArrayList<>();
+        for (ItemInfo item : defaultItems) {
+            if (item.sinceVersion <= version && (item.retiredVersion == null || item.retiredVersion > version)) {
+                items.add(item);
+            }
+        }
+        // defaultItems 已按ID排序，位序号即在此列表中的位置
+        List<ItemInfo> display = new ArrayList<>(items);
+        display.sort(Comparator.<ItemInfo>comparingInt(info -> info.sortOrder).thenComparing(info -> info.id));
+        List<String> texts = new ArrayList<>();
+        int[] bits = new int[display.size()];
+        for (int i = 0; i < display.size(); i++) {
+            texts.add(display.get(i).text);
+            bits[i] = items.indexOf(display.get(i));
+        }
+        return new CheckLayout(version, texts, bits);
+    }
+
+    private static final class Snapshot {
+        private final Map<Long, String> texts;
+        private final Map<String, Long> itemIds;
+        private final List<ItemInfo> defaultItems;
+        private final int defaultVersion;
+        private final Map<Integer, CheckLayout> layouts = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<Long, String> texts, Map<String, Long> itemIds,
+                         List<ItemInfo> defaultItems, int defaultVersion) {
+            this.texts = Collections.unmodifiableMap(texts);
+            this.itemIds = Collections.unmodifiableMap(itemIds);
+            this.defaultItems = Collections.unmodifiableList(defaultItems);
+            this.defaultVersion = defaultVersion;
+        }
+    }
+
+    /**
+     * 缓存中的检查项副本，不持有托管实体
+     */
+    private static final class ItemInfo {
+        private final Long id;
+        private final String text;
+        private final int sortOrder;
+        private final int sinceVersion;
+        private final Integer retiredVersion;
+
+        private ItemInfo(CheckTemplateItem item) {
+            this.id = item.getId();
+            this.text = item.getItemText();
+            this.sortOrder = item.getSortOrder() != null ? item.getSortOrder() : 0;
+            this.sinceVersion = item.getSinceVersion() != null ? item.getSinceVersion() : 1;
+            this.retiredVersion = item.getRetiredVersion();
+        }
+    }
+}
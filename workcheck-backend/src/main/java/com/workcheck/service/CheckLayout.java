@@ -0,0 +1,99 @@
+package com.workcheck.service;
+
+import com.workcheck.dto.CheckDTO;
+import com.workcheck.entity.TaskCheck;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 默认模板某个版本的检查项布局，用于检查项位图的编码和还原
+ * 位序号按检查项ID排列（检查项ID不变，调整显示顺序不影响已保存的位图），显示顺序按排序号。
+ */
+public final class CheckLayout {
+
+    /**
+     * 位图为 BIGINT，最多容纳63个检查项
+     */
+    public static final int MAX_ITEMS = 63;
+
+    private final int version;
+    private final List<String> texts;
+    private final int[] bits;
+
+    /**
+     * @param version 模板版本
+     * @param texts 按显示顺序排列的检查项文本
+     * @param bits 按显示顺序排列的位序号
+     */
+    CheckLayout(int version, List<String> texts, int[] bits) {
+        this.version = version;
+        this.texts = Collections.unmodifiableList(new ArrayList<>(texts));
+        this.bits = bits.clone();
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return texts.size();
+    }
+
+    /**
+     * 检查项与本版本的模板完全一致（文本、顺序、完成/未完成状态）时编码为位图
+     * @return 无法编码时返回null，此时按行保存
+     */
+    public Long encode(List<CheckDTO> checks) {
+        if (checks == null || checks.size() != texts.size() || texts.size() > MAX_ITEMS) {
+            return null;
+        }
+        List<CheckDTO> sorted = new ArrayList<>(checks);
+        sorted.sort((a, b) -> Integer.compare(
+                a.getSortOrder() != null ? a.getSortOrder() : Integer.MAX_VALUE,
+                b.getSortOrder() != null ? b.getSortOrder() : Integer.MAX_VALUE));
+        long mask = 0L;
+        for (int i = 0; i < sorted.size(); i++) {
+            CheckDTO check = sorted.get(i);
+            if (!texts.get(i).equals(check.getCheckItem()) || check.getSortOrder() == null || check.getSortOrder() != i) {
+                return null;
+            }
+            if (TaskCheck.STATUS_DONE.equals(check.getStatus())) {
+                mask |= 1L << bits[i];
+            } else if (!TaskCheck.STATUS_TODO.equals(check.getStatus())) {
+                return null;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * 由位图还原检查项列表
+     */
+    public List<CheckDTO> decode(long mask) {
+        List<CheckDTO> checks = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            CheckDTO check = new CheckDTO();
+            check.setCheckItem(texts.get(i));
+            check.setStatus((mask & (1L << bits[i])) != 0 ? TaskCheck.STATUS_DONE : TaskCheck.STATUS_TODO);
+            check.setSortOrder(i);
+            checks.add(check);
+        }
+        return checks;
+    }
+
+    /**
+     * 位图表示的已完成检查项数
+     */
+    public int countDone(long mask) {
+        return Long.bitCount(mask & fullMask());
+    }
+
+    /**
+     * 全部完成时的位图
+     */
+    public long fullMask() {
+        return texts.isEmpty() ? 0L : -1L >>> (64 - texts.size());
+    }
+}
@@ -0,0 +1,287 @@
+package com.workcheck.service;
+
+import com.workcheck.dto.FileDTO;
+import com.workcheck.dto.FileTaskDTO;
+import com.workcheck.dto.TaskDTO;
+import com.workcheck.entity.ArchivedMonth;
+import com.workcheck.entity.FilePath;
+import com.workcheck.entity.Task;
+import com.workcheck.entity.TaskFile;
+import com.workcheck.repository.FilePathRepository;
+import com.workcheck.repository.TaskFileRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 文件路径字典
+ * 任务中登记的文件路径规范化后存入 file_paths（路径MD5唯一索引 + 路径前缀索引），
+ * task_files 通过 path_id 引用，按文件或目录反查任务时只走索引，不扫描 TEXT 列；
+ * 已归档的月份通过 archived_month_paths 定位归档快照。
+ */
+@Service
+public class FilePathService {
+
+    private static final int CACHE_LIMIT = 100000;
+
+    /**
+     * 与 file_paths.path 列长度一致，更长的路径不进入字典
+     */
+    private static final int MAX_PATH_LENGTH = 1000;
+
+    private static final int BACKFILL_BATCH = 500;
+
+    @Autowired
+    private FilePathRepository filePathRepository;
+
+    @Autowired
+    private TaskFileRepository taskFileRepository;
+
+    @Autowired
+    private MonthArchiveService monthArchiveService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 规范化路径 -> 路径ID，只缓存已提交的记录
+     */
+    private final Map<String, Long> idCache = new ConcurrentHashMap<>();
+
+    /**
+     * 规范化路径：统一分隔符为 /，合并重复的 /，去掉开头的 ./ 和首尾的 /
+     * @return 规范化后的路径，空路径返回null
+     */
+    public static String normalize(String path) {
+        if (path == null) {
+            return null;
+        }
+        String normalized = path.trim().replace('\\', '/').replaceAll("/{2,}", "/");
+        while (normalized.startsWith("./")) {
+            normalized = normalized.substring(2);
+        }
+        if (normalized.startsWith("/")) {
+            normalized = normalized.substring(1);
+        }
+        if (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * 批量获取路径ID，不存在的路径会新增
+     * @param paths 原始路径
+     * @return 规范化路径 -> 路径ID
+     */
+    public Map<String, Long> resolveIds(Collection<String> paths) {
+        Map<String, Long> ids = new HashMap<>();
+        Map<String, String> missing = new HashMap<>();
+        for (String path : paths) {
+            String normalized = normalize(path);
+            if (normalized == null || normalized.length() > MAX_PATH_LENGTH || ids.containsKey(normalized)) {
+                continue;
+            }
+            Long id = idCache.get(normalized);
+            if (id != null) {
+                ids.put(normalized, id);
+            } else {
+                missing.put(hash(normalized), normalized);
+            }
+        }
+        if (missing.isEmpty()) {
+            return ids;
+        }
+
+        for (FilePath filePath : filePathRepository.findByPathHashIn(missing.keySet())) {
+            missing.remove(filePath.getPathHash());
+            ids.put(filePath.getPath(), filePath.getId());
+            cache(filePath.getPath(), filePath.getId());
+        }
+        if (missing.isEmpty()) {
+            return ids;
+        }
+
+        // 不同用户月份的保存可能同时新增同一路径：INSERT IGNORE 跳过已存在的路径，
+        // 按哈希顺序插入避免两个事务互相等待；再加锁读取，拿到本事务或其他事务新增的记录
+        List<String> hashes = new ArrayList<>(missing.keySet());
+        Collections.sort(hashes);
+        List<Object[]> rows = new ArrayList<>();
+        for (String hash : hashes) {
+            rows.add(new Object[]{hash, missing.get(hash)});
+        }
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO file_paths (path_hash, path) VALUES (?, ?)", rows);
+        // 新增的记录在事务提交前不放入缓存，避免回滚后缓存中留下不存在的ID
+        for (FilePath filePath : filePathRepository.findCurrentByPathHashIn(hashes)) {
+            ids.put(filePath.getPath(), filePath.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * 登记过指定文件的所有任务（跨用户、月份）
+     */
+    public List<FileTaskDTO> findTasksByPath(String path) {
+        String normalized = normalize(path);
+        if (normalized == null) {
+            throw new IllegalArgumentException("文件路径不能为空");
+        }
+        return filePathRepository.findByPathHash(hash(normalized))
+                .map(filePath -> findTasks(Collections.singletonList(filePath)))
+                .orElseGet(ArrayList::new);
+    }
+
+    /**
+     * 目录下所有文件的路径
+     */
+    public List<String> findPathsByPrefix(String directory) {
+        return findByPrefix(directory).stream().map(FilePath::getPath).collect(Collectors.toList());
+    }
+
+    /**
+     * 登记过目录下任一文件的所有任务
+     */
+    public List<FileTaskDTO> findTasksByPrefix(String directory) {
+        List<FilePath> filePaths = findByPrefix(directory);
+        return filePaths.isEmpty() ? new ArrayList<>() : findTasks(filePaths);
+    }
+
+    /**
+     * 启动后为升级前保存的文件记录补充路径ID
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        Thread thread = new Thread(this::backfill, "file-path-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void backfill() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int total = 0;
+        try {
+            while (true) {
+                Integer linked = transaction.execute(status -> {
+                    List<TaskFile> files = taskFileRepository.findUnlinked(PageRequest.of(0, BACKFILL_BATCH));
+                    Map<String, Long> ids = resolveIds(files.stream().map(TaskFile::getFile).collect(Collectors.toList()));
+                    int count = 0;
+                    for (TaskFile file : files) {
+                        Long pathId = ids.get(normalize(file.getFile()));
+                        // 空白路径没有字典记录，用0标记为已处理
+                        taskFileRepository.updatePathId(file.getId(), pathId != null ? pathId : 0L);
+                        count++;
+                    }
+                    return count;
+                });
+                if (linked == null || linked == 0) {
+                    break;
+                }
+                total += linked;
+            }
+            if (total > 0) {
+                System.out.println("已为 " + total + " 条文件记录关联路径字典");
+            }
+        } catch (Exception e) {
+            System.err.println("关联路径字典失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 热表中的任务在前，已归档月份的任务（更早的月份）在后
+     */
+    private List<FileTaskDTO> findTasks(List<FilePath> filePaths) {
+        List<Long> pathIds = filePaths.stream().map(FilePath::getId).collect(Collectors.toList());
+        List<FileTaskDTO> result = toDTOs(taskFileRepository.findByPathIds(pathIds));
+
+        Set<String> paths = filePaths.stream().map(FilePath::getPath).collect(Collectors.toSet());
+        List<ArchivedMonth> archives = monthArchiveService.findByPathIds(pathIds);
+        archives.sort(Comparator.comparing(ArchivedMonth::getMonth).reversed());
+        for (ArchivedMonth archive : archives) {
+            for (TaskDTO task : monthArchiveService.readTasks(archive)) {
+                if (task.getFiles() == null) {
+                    continue;
+                }
+                Set<String> seen = new HashSet<>();
+                for (FileDTO file : task.getFiles()) {
+                    String normalized = normalize(file.getFile());
+                    if (normalized != null && paths.contains(normalized) && seen.add(normalized)) {
+                        result.add(toDTO(archive.getUserName(), archive.getMonth(), task.getTaskId(),
+                                task.getChange(), task.getRisk(), file.getFile(), file.getTest()));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private List<FilePath> findByPrefix(String directory) {
+        String normalized = normalize(directory);
+        if (normalized == null) {
+            throw new IllegalArgumentException("目录不能为空");
+        }
+        String escaped = normalized.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return filePathRepository.findByPathPrefix(escaped + "/");
+    }
+
+    private static List<FileTaskDTO> toDTOs(List<TaskFile> files) {
+        // 同一任务登记了同一文件多次时只返回一条
+        Set<String> seen = new LinkedHashSet<>();
+        List<FileTaskDTO> result = new ArrayList<>();
+        for (TaskFile file : files) {
+            Task task = file.getTask();
+            if (!seen.add(task.getId() + "|" + file.getPathId())) {
+                continue;
+            }
+            result.add(toDTO(task.getUserName(), task.getMonth(), task.getTaskId(),
+                    task.getChange(), task.getRisk(), file.getFile(), file.getTest()));
+        }
+        return result;
+    }
+
+    private static FileTaskDTO toDTO(String userName, String month, String taskId,
+                                     String change, String risk, String file, String test) {
+        FileTaskDTO dto = new FileTaskDTO();
+        dto.setUserName(userName);
+        dto.setMonth(month);
+        dto.setTaskId(taskId);
+        dto.setChange(change);
+        dto.setRisk(risk);
+        dto.setFile(file);
+        dto.setTest(test);
+        return dto;
+    }
+
+    private void cache(String path, Long id) {
+        if (idCache.size() >= CACHE_LIMIT) {
+            idCache.clear();
+        }
+        idCache.put(path, id);
+    }
+
+    private static String hash(String normalized) {
+        return DigestUtils.md5DigestAsHex(normalized.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,362 @@
+package com.workcheck.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 每个仓库常驻的 git cat-file --batch / --batch-check 进程
+ * 通过管道按行发送对象名读取内容，避免每次查询都启动一个 git 进程。
+ * 同一进程上的请求用锁串行化，进程退出或通信出错时自动重启。
+ * 只为已登记的仓库（GitRepositoryRegistry 登记时调用 track）启动进程，其他路径由调用方改用一次性的 git 命令，
+ * 避免任意传入的路径各自留下一个常驻进程。
+ */
+@Service
+public class GitCatFileService {
+
+    /**
+     * 读完对象后剩余未读的字节超过此值时，直接重启进程而不是继续读空管道
+     */
+    private static final long MAX_DRAIN_BYTES = 8L * 1024 * 1024;
+
+    private static final File NULL_FILE = new File(
+            System.getProperty("os.name", "").startsWith("Windows") ? "NUL" : "/dev/null");
+
+    @Value("${workcheck.git.cat-file.enabled:true}")
+    private boolean enabled = true;
+
+    private final Map<String, CatFileProcess> batchProcesses = new ConcurrentHashMap<>();
+
+    private final Map<String, CatFileProcess> checkProcesses = new ConcurrentHashMap<>();
+
+    /**
+     * 已登记仓库的规范路径
+     */
+    private final Set<String> repositories = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 对象基本信息（git cat-file --batch-check 的输出）
+     */
+    public static class ObjectInfo {
+        private final String oid;
+        private final String type;
+        private final long size;
+
+        public ObjectInfo(String oid, String type, long size) {
+            this.oid = oid;
+            this.type = type;
+            this.size = size;
+        }
+
+        public String getOid() {
+            return oid;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+
+    /**
+     * 对象内容的读取回调，content 只包含该对象的字节，读取多少由调用方决定
+     */
+    public interface ObjectReader<T> {
+        T read(ObjectInfo info, InputStream content) throws IOException;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 指定仓库能否使用常驻进程：已启用且仓库已登记
+     */
+    public boolean isEnabled(String projectPath) {
+        return enabled && projectPath != null && repositories.contains(canonicalKey(projectPath));
+    }
+
+    /**
+     * 登记仓库，之后可为其启动常驻进程
+     */
+    public void track(String projectPath) {
+        repositories.add(canonicalKey(projectPath));
+    }
+
+    /**
+     * 查询对象信息
+     * @param projectPath 项目路径
+     * @param object 对象名，如 HEAD、提交哈希、commit:path
+     * @return 对象信息，不存在时返回null
+     */
+    public ObjectInfo getObjectInfo(String projectPath, String object) throws IOException {
+        return execute(checkProcesses, projectPath, "--batch-check", object, (info, content) -> info);
+    }
+
+    /**
+     * 读取对象内容
+     * @param projectPath 项目路径
+     * @param object 对象名，如 commit:path
+     * @param reader 内容读取回调
+     * @return 回调的返回值，对象不存在时返回null
+     */
+    public <T> T readObject(String projectPath, String object, ObjectReader<T> reader) throws IOException {
+        return execute(batchProcesses, projectPath, "--batch", object, reader);
+    }
+
+    /**
+     * 当前常驻的进程数
+     */
+    public int getProcessCount() {
+        return batchProcesses.size() + checkProcesses.size();
+    }
+
+    /**
+     * 检查所有进程，已退出的移除，下次使用时重新启动
+     */
+    public void checkHealth() {
+        batchProcesses.values().removeIf(p -> !p.isAlive());
+        checkProcesses.values().removeIf(p -> !p.isAlive());
+    }
+
+    /**
+     * 取消登记并关闭指定仓库的常驻进程
+     */
+    public void close(String projectPath) {
+        String key = canonicalKey(projectPath);
+        repositories.remove(key);
+        CatFileProcess batch = batchProcesses.remove(key);
+        if (batch != null) {
+            batch.destroy();
+        }
+        CatFileProcess check = checkProcesses.remove(key);
+        if (check != null) {
+            check.destroy();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        repositories.clear();
+        batchProcesses.values().forEach(CatFileProcess::destroy);
+        checkProcesses.values().forEach(CatFileProcess::destroy);
+        batchProcesses.clear();
+        checkProcesses.clear();
+    }
+
+    private <T> T execute(Map<String, CatFileProcess> processes, String projectPath, String mode,
+                          String object, ObjectReader<T> reader) throws IOException {
+        if (object == null || object.isEmpty() || object.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("无效的对象名: " + object);
+        }
+
+        // 采样的请求中每次读取记录一个跨度（常驻进程本身不计入）
+        try (TraceSpan span = Tracing.startSpan("git cat-file " + mode, TraceSpan.KIND_CLIENT)) {
+            span.setAttribute("git.object", object);
+            ObjectReader<T> tracedReader = span.isRecording() ? (info, content) -> {
+                span.setAttribute("git.object_size", info.getSize());
+                return reader.read(info, content);
+            } : reader;
+
+            String key = canonicalKey(projectPath);
+            if (!repositories.contains(key)) {
+                throw new IOException("仓库未登记，不使用常驻 cat-file 进程: " + key);
+            }
+            CatFileProcess process = processes.computeIfAbsent(key, k -> new CatFileProcess(new File(k), mode));
+            try {
+                return process.request(object, tracedReader);
+            } catch (IOException e) {
+                // 进程可能已退出或管道状态错乱，重启后重试一次
+                System.err.println("git cat-file 进程异常，重新启动: " + e.getMessage());
+                span.setAttribute("git.restarted", true);
+                process.destroy();
+                processes.remove(key, process);
+                process = processes.computeIfAbsent(key, k -> new CatFileProcess(new File(k), mode));
+                return process.request(object, tracedReader);
+            }
+        }
+    }
+
+    private static String canonicalKey(String projectPath) {
+        try {
+            return new File(projectPath).getCanonicalPath();
+        } catch (IOException e) {
+            return new File(projectPath).getAbsolutePath();
+        }
+    }
+
+    /**
+     * 单个 cat-file 进程，请求在锁内串行执行
+     */
+    private static class CatFileProcess {
+        private final File directory;
+        private final String mode;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private Process process;
+        private OutputStream stdin;
+        private BufferedInputStream stdout;
+
+        CatFileProcess(File directory, String mode) {
+            this.directory = directory;
+            this.mode = mode;
+        }
+
+        <T> T request(String object, ObjectReader<T> reader) throws IOException {
+            lock.lock();
+            try {
+                ensureStarted();
+
+                stdin.write((object + "\n").getBytes(StandardCharsets.UTF_8));
+                stdin.flush();
+
+                String header = readLine();
+                if (header == null) {
+                    throw new IOException("git cat-file 进程已退出");
+                }
+                // "<object> missing" / "<object> ambiguous"
+                if (header.endsWith(" missing") || header.endsWith(" ambiguous")) {
+                    return null;
+                }
+
+                String[] parts = header.split(" ");
+                if (parts.length != 3) {
+                    throw new IOException("无法解析 git cat-file 输出: " + header);
+                }
+                ObjectInfo info = new ObjectInfo(parts[0], parts[1], Long.parseLong(parts[2]));
+
+                if (!"--batch".equals(mode)) {
+                    return reader.read(info, null);
+                }
+
+                BoundedInputStream content = new BoundedInputStream(stdout, info.getSize());
+                T result = reader.read(info, content);
+
+                // 读完剩余内容和结尾的换行，保持管道同步；剩余太多时直接重启更便宜
+                if (content.remaining() > MAX_DRAIN_BYTES) {
+                    destroy();
+                    return result;
+                }
+                content.drain();
+                if (stdout.read() != '\n') {
+                    throw new IOException("git cat-file 输出格式错误");
+                }
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean isAlive() {
+            return process != null && process.isAlive();
+        }
+
+        void destroy() {
+            lock.lock();
+            try {
+                if (process != null) {
+                    process.destroy();
+                }
+                process = null;
+                stdin = null;
+                stdout = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void ensureStarted() throws IOException {
+            if (process != null && process.isAlive()) {
+                return;
+            }
+            ProcessBuilder pb = new ProcessBuilder("git", "cat-file", mode);
+            pb.directory(directory);
+            pb.redirectError(ProcessBuilder.Redirect.appendTo(NULL_FILE));
+            process = pb.start();
+            stdin = process.getOutputStream();
+            stdout = new BufferedInputStream(process.getInputStream());
+        }
+
+        private String readLine() throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = stdout.read()) != -1) {
+                if (b == '\n') {
+                    return new String(line.toByteArray(), StandardCharsets.UTF_8);
+                }
+                line.write(b);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 只允许读取对象本身字节数的输入流，不会读到下一个对象
+     */
+    private static class BoundedInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long size) {
+            this.in = in;
+            this.remaining = size;
+        }
+
+        long remaining() {
+            return remaining;
+        }
+
+        void drain() throws IOException {
+            byte[] buffer = new byte[8192];
+            while (remaining > 0) {
+                if (read(buffer, 0, buffer.length) == -1) {
+                    throw new IOException("git cat-file 输出提前结束");
+                }
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b != -1) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = in.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public void close() {
+            // 底层管道由进程持有，不在这里关闭
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.workcheck.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Git仓库后台维护
+ * 定期为仓库写入带 changed-path Bloom 过滤器的 commit-graph，
+ * 使按文件路径过滤的 git log 不必为每个提交重新计算树差异。
+ * 只维护已登记的仓库（GitRepositoryRegistry）和 workcheck.git.maintenance.repositories 中配置的仓库，
+ * 接口参数中临时传入的路径不会被写入。
+ */
+@Service
+public class GitMaintenanceService {
+
+    @Value("${workcheck.git.maintenance.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${workcheck.git.maintenance.repositories:}")
+    private String configuredRepositories = "";
+
+    @Autowired
+    private GitCatFileService catFileService;
+
+    private final Set<String> repositories = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 仓库路径 -> 上次写入 commit-graph 时的 HEAD
+     */
+    private final Map<String, String> lastMaintainedHead = new ConcurrentHashMap<>();
+
+    /**
+     * 记录需要维护的仓库
+     */
+    public void track(String projectPath) {
+        if (projectPath != null && !projectPath.isEmpty()) {
+            repositories.add(canonicalPath(projectPath));
+        }
+    }
+
+    /**
+     * 不再维护指定仓库
+     */
+    public void untrack(String projectPath) {
+        if (projectPath != null && !projectPath.isEmpty()) {
+            String path = canonicalPath(projectPath);
+            repositories.remove(path);
+            lastMaintainedHead.remove(path);
+        }
+    }
+
+    /**
+     * 定期维护所有已知仓库，HEAD 未变化的仓库跳过
+     */
+    @Scheduled(initialDelayString = "${workcheck.git.maintenance.initial-delay-ms:60000}",
+            fixedDelayString = "${workcheck.git.maintenance.interval-ms:1800000}")
+    public void runMaintenance() {
+        if (catFileService != null) {
+            catFileService.checkHealth();
+        }
+        if (!enabled) {
+            return;
+        }
+
+        for (String repository : configuredRepositories.split(",")) {
+            track(repository.trim());
+        }
+
+        for (String repository : repositories) {
+            String head = resolveHead(repository);
+            if (head != null && head.equals(lastMaintainedHead.get(repository))) {
+                continue;
+            }
+            if (writeCommitGraph(repository)) {
+                if (head != null) {
+                    lastMaintainedHead.put(repository, head);
+                }
+            }
+        }
+    }
+
+    /**
+     * 增量写入 commit-graph（--split），同时计算 changed-path Bloom 过滤器
+     * @param projectPath 项目路径
+     * @return 是否成功
+     */
+    public boolean writeCommitGraph(String projectPath) {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.add("commit-graph");
+        command.add("write");
+        command.add("--reachable");
+        command.add("--changed-paths");
+        command.add("--split");
+
+        long start = System.currentTimeMillis();
+        try {
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.directory(new File(projectPath));
+            pb.redirectErrorStream(true);
+            Process process = pb.start();
+
+            StringBuilder output = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.append(line).append("\n");
+                }
+            }
+
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                System.err.println("写入commit-graph失败(" + projectPath + ")，退出码: " + exitCode + "\n" + output);
+                return false;
+            }
+            System.out.println("已更新commit-graph: " + projectPath + "，耗时 " + (System.currentTimeMillis() - start) + "ms");
+            return true;
+
+        } catch (IOException | InterruptedException e) {
+            System.err.println("写入commit-graph失败: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private String resolveHead(String projectPath) {
+        if (catFileService == null || !catFileService.isEnabled(projectPath)) {
+            return null;
+        }
+        try {
+            GitCatFileService.ObjectInfo info = catFileService.getObjectInfo(projectPath, "HEAD");
+            return info != null ? info.getOid() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String canonicalPath(String projectPath) {
+        try {
+            return new File(projectPath).getCanonicalPath();
+        } catch (IOException e) {
+            return new File(projectPath).getAbsolutePath();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.workcheck.service;
+
+import com.workcheck.dto.GitRepositoryDTO;
+import com.workcheck.entity.GitRepository;
+import com.workcheck.repository.GitRepositoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Git仓库登记
+ * 仓库只在登记时校验一次，并缓存规范路径、远程地址和默认分支；
+ * 之后各接口按仓库ID访问，按仓库复用 cat-file 进程、commit-graph 维护等资源。
+ */
+@Service
+public class GitRepositoryRegistry {
+
+    @Autowired
+    private GitRepositoryRepository gitRepositoryRepository;
+
+    @Autowired
+    private GitService gitService;
+
+    @Autowired
+    private GitCatFileService catFileService;
+
+    @Autowired
+    private GitMaintenanceService maintenanceService;
+
+    @Autowired
+    private GitRepositoryWatcher repositoryWatcher;
+
+    private final Map<Long, GitRepositoryDTO> byId = new ConcurrentHashMap<>();
+
+    private final Map<String, GitRepositoryDTO> byPath = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded = false;
+
+    /**
+     * 登记仓库，已登记的路径会刷新远程地址和默认分支
+     * @param projectPath 项目路径
+     * @param name 仓库名称（可选，默认取目录名）
+     * @return 仓库句柄
+     */
+    public synchronized GitRepositoryDTO register(String projectPath, String name) {
+        if (!gitService.isGitRepository(projectPath)) {
+            throw new IllegalArgumentException("指定路径不是Git仓库");
+        }
+        ensureLoaded();
+
+        String path = canonicalPath(projectPath);
+        GitRepository repository = gitRepositoryRepository.findByPath(path).orElseGet(GitRepository::new);
+        repository.setPath(path);
+        if (name != null && !name.trim().isEmpty()) {
+            repository.setName(name.trim());
+        } else if (repository.getName() == null) {
+            repository.setName(new File(path).getName());
+        }
+        repository.setRemoteUrl(gitService.getRemoteUrl(path));
+        repository.setDefaultBranch(gitService.getDefaultBranch(path));
+
+        return cache(gitRepositoryRepository.save(repository));
+    }
+
+    /**
+     * 重新获取远程地址和默认分支
+     */
+    public GitRepositoryDTO refresh(Long id) {
+        GitRepositoryDTO repository = get(id);
+        return register(repository.getPath(), repository.getName());
+    }
+
+    /**
+     * 取消登记，并关闭该仓库的常驻进程和事件订阅
+     */
+    public synchronized void unregister(Long id) {
+        GitRepositoryDTO repository = get(id);
+        gitRepositoryRepository.deleteById(id);
+        byId.remove(id);
+        byPath.remove(repository.getPath());
+        catFileService.close(repository.getPath());
+        maintenanceService.untrack(repository.getPath());
+        repositoryWatcher.stop(id);
+    }
+
+    /**
+     * 按ID获取已登记的仓库
+     */
+    public GitRepositoryDTO get(Long id) {
+        ensureLoaded();
+        GitRepositoryDTO repository = byId.get(id);
+        if (repository == null) {
+            throw new IllegalArgumentException("仓库不存在: " + id);
+        }
+        return repository;
+    }
+
+    /**
+     * 所有已登记的仓库
+     */
+    public List<GitRepositoryDTO> list() {
+        ensureLoaded();
+        List<GitRepositoryDTO> repositories = new ArrayList<>(byId.values());
+        repositories.sort(Comparator.comparing(GitRepositoryDTO::getId));
+        return repositories;
+    }
+
+    /**
+     * 解析接口参数中的仓库：优先按仓库ID，其次按路径
+     * 已登记的路径直接返回缓存的句柄，未登记的路径校验后返回临时句柄
+     * @return 仓库句柄，路径为空或不是Git仓库时返回null
+     */
+    public GitRepositoryDTO resolve(Long repoId, String projectPath) {
+        if (repoId != null) {
+            return get(repoId);
+        }
+        if (projectPath == null || projectPath.isEmpty()) {
+            return null;
+        }
+
+        ensureLoaded();
+        String path = canonicalPath(projectPath);
+        GitRepositoryDTO registered = byPath.get(path);
+        if (registered != null) {
+            return registered;
+        }
+        if (!gitService.isGitRepository(path)) {
+            return null;
+        }
+        return new GitRepositoryDTO(null, new File(path).getName(), path, null, null);
+    }
+
+    /**
+     * 远程地址：已登记的仓库使用缓存值
+     */
+    public String getRemoteUrl(GitRepositoryDTO repository) {
+        return repository.isRegistered() ? repository.getRemoteUrl() : gitService.getRemoteUrl(repository.getPath());
+    }
+
+    /**
+     * 默认分支：已登记的仓库使用缓存值
+     */
+    public String getDefaultBranch(GitRepositoryDTO repository) {
+        return repository.isRegistered() ? repository.getDefaultBranch() : gitService.getDefaultBranch(repository.getPath());
+    }
+
+    /**
+     * 启动后加载已登记的仓库，使后台维护立即覆盖这些仓库
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            ensureLoaded();
+        } catch (Exception e) {
+            System.err.println("加载已登记的Git仓库失败: " + e.getMessage());
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                gitRepositoryRepository.findAll().forEach(this::cache);
+                loaded = true;
+            }
+        }
+    }
+
+    private GitRepositoryDTO cache(GitRepository entity) {
+        GitRepositoryDTO repository = new GitRepositoryDTO(entity.getId(), entity.getName(), entity.getPath(),
+                entity.getRemoteUrl(), entity.getDefaultBranch());
+        Optional.ofNullable(byId.put(repository.getId(), repository))
+                .filter(old -> !old.getPath().equals(repository.getPath()))
+                .ifPresent(old -> byPath.remove(old.getPath()));
+        byPath.put(repository.getPath(), repository);
+        catFileService.track(repository.getPath());
+        maintenanceService.track(repository.getPath());
+        return repository;
+    }
+
+    private static String canonicalPath(String projectPath) {
+        try {
+            return new File(projectPath).getCanonicalPath();
+        } catch (IOException e) {
+            return new File(projectPath).getAbsolutePath();
+        }
+    }
+}
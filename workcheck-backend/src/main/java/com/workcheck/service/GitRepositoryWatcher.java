@@ -0,0 +1,315 @@
+package com.workcheck.service;
+
+import com.workcheck.dto.GitCommitDTO;
+import com.workcheck.dto.GitRepositoryDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 监听已登记仓库的 .git/HEAD、packed-refs 和 .git/refs/heads，
+ * 发现新提交后只计算上次HEAD之后的提交，通过 Server-Sent Events 推送给订阅的页面。
+ * 仓库只在有订阅者时才被监听。
+ */
+@Service
+public class GitRepositoryWatcher {
+
+    /**
+     * 一次 git 操作会连续产生多个文件事件，等待这段时间没有新事件后再处理
+     */
+    private static final long DEBOUNCE_MS = 200;
+
+    private static final int MAX_PUSHED_COMMITS = 100;
+
+    @Value("${workcheck.git.watch.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs = 1800000;
+
+    @Autowired
+    private GitService gitService;
+
+    private final Map<Long, WatchedRepository> watched = new ConcurrentHashMap<>();
+
+    private final Map<WatchKey, WatchedRepository> keyOwners = new ConcurrentHashMap<>();
+
+    private volatile WatchService watchService;
+
+    private volatile Thread watchThread;
+
+    /**
+     * 正在监听的仓库
+     */
+    private static class WatchedRepository {
+        private final Long id;
+        private final Path gitDir;
+        private final String path;
+        private final Set<WatchKey> keys = ConcurrentHashMap.newKeySet();
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private volatile String head;
+
+        WatchedRepository(Long id, String path) {
+            this.id = id;
+            this.path = path;
+            this.gitDir = Paths.get(path, ".git");
+        }
+    }
+
+    /**
+     * 订阅仓库的新提交事件
+     * @param repository 已登记的仓库
+     * @return SSE 连接
+     */
+    public SseEmitter subscribe(GitRepositoryDTO repository) throws IOException {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        WatchedRepository watchedRepository;
+
+        synchronized (this) {
+            watchedRepository = watched.get(repository.getId());
+            if (watchedRepository == null) {
+                watchedRepository = new WatchedRepository(repository.getId(), repository.getPath());
+                watchedRepository.head = gitService.resolveHead(repository.getPath());
+                startWatching(watchedRepository);
+                watched.put(repository.getId(), watchedRepository);
+            }
+            watchedRepository.emitters.add(emitter);
+        }
+
+        WatchedRepository target = watchedRepository;
+        emitter.onCompletion(() -> removeEmitter(target, emitter));
+        emitter.onTimeout(() -> removeEmitter(target, emitter));
+        emitter.onError(e -> removeEmitter(target, emitter));
+
+        Map<String, Object> ready = new HashMap<>();
+        ready.put("repoId", repository.getId());
+        ready.put("head", target.head);
+        emitter.send(SseEmitter.event().name("ready").data(ready));
+        return emitter;
+    }
+
+    /**
+     * 停止监听仓库并关闭所有订阅
+     */
+    public synchronized void stop(Long repoId) {
+        WatchedRepository repository = watched.remove(repoId);
+        if (repository == null) {
+            return;
+        }
+        repository.keys.forEach(key -> {
+            key.cancel();
+            keyOwners.remove(key);
+        });
+        repository.emitters.forEach(SseEmitter::complete);
+        repository.emitters.clear();
+    }
+
+    /**
+     * 正在监听的仓库数
+     */
+    public int getWatchedCount() {
+        return watched.size();
+    }
+
+    /**
+     * 定期发送心跳注释，及时清理已断开的连接
+     */
+    @Scheduled(fixedDelayString = "${workcheck.git.watch.heartbeat-ms:30000}")
+    public void heartbeat() {
+        for (WatchedRepository repository : watched.values()) {
+            for (SseEmitter emitter : repository.emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                } catch (IOException | IllegalStateException e) {
+                    removeEmitter(repository, emitter);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        new ArrayList<>(watched.keySet()).forEach(this::stop);
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void removeEmitter(WatchedRepository repository, SseEmitter emitter) {
+        synchronized (this) {
+            repository.emitters.remove(emitter);
+            if (repository.emitters.isEmpty() && watched.get(repository.id) == repository) {
+                stop(repository.id);
+            }
+        }
+    }
+
+    private void startWatching(WatchedRepository repository) throws IOException {
+        ensureWatchThread();
+        register(repository, repository.gitDir);
+        Path refs = repository.gitDir.resolve("refs").resolve("heads");
+        if (Files.isDirectory(refs)) {
+            registerTree(repository, refs);
+        }
+    }
+
+    private void register(WatchedRepository repository, Path dir) throws IOException {
+        WatchKey key = dir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        repository.keys.add(key);
+        keyOwners.put(key, repository);
+    }
+
+    /**
+     * 分支名可以包含目录（如 feature/x），需要递归监听
+     */
+    private void registerTree(WatchedRepository repository, Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                register(repository, dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private synchronized void ensureWatchThread() throws IOException {
+        if (watchService == null) {
+            watchService = FileSystems.getDefault().newWatchService();
+        }
+        if (watchThread == null || !watchThread.isAlive()) {
+            watchThread = new Thread(this::watchLoop, "git-repository-watcher");
+            watchThread.setDaemon(true);
+            watchThread.start();
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                Set<WatchedRepository> changed = new HashSet<>();
+
+                // 合并短时间内的连续事件
+                while (key != null) {
+                    WatchedRepository repository = keyOwners.get(key);
+                    try {
+                        if (repository != null && handleEvents(repository, key)) {
+                            changed.add(repository);
+                        }
+                    } catch (RuntimeException e) {
+                        // 单个目录处理失败不能结束监听线程，否则所有仓库都停止推送
+                        System.err.println("处理仓库文件事件失败: "
+                                + (repository != null ? repository.path : key.watchable()) + ", " + e.getMessage());
+                    }
+                    if (!key.reset()) {
+                        keyOwners.remove(key);
+                        if (repository != null) {
+                            repository.keys.remove(key);
+                        }
+                    }
+                    key = watchService.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+                }
+
+                for (WatchedRepository repository : changed) {
+                    if (watched.get(repository.id) == repository) {
+                        try {
+                            publishNewCommits(repository);
+                        } catch (RuntimeException e) {
+                            System.err.println("推送仓库新提交失败: " + repository.path + ", " + e.getMessage());
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // 应用关闭
+        }
+    }
+
+    /**
+     * @return 事件是否可能意味着HEAD移动
+     */
+    private boolean handleEvents(WatchedRepository repository, WatchKey key) {
+        Path dir = (Path) key.watchable();
+        boolean inGitDir = dir.equals(repository.gitDir);
+        boolean relevant = false;
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevant = true;
+                continue;
+            }
+            Path name = (Path) event.context();
+            String fileName = name.toString();
+            if (fileName.endsWith(".lock")) {
+                continue;
+            }
+
+            if (inGitDir) {
+                // .git 目录下只关心 HEAD 和 packed-refs，忽略 index、logs 等
+                relevant |= "HEAD".equals(fileName) || "packed-refs".equals(fileName);
+            } else {
+                relevant = true;
+                Path child = dir.resolve(name);
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child)) {
+                    try {
+                        registerTree(repository, child);
+                    } catch (IOException e) {
+                        System.err.println("监听目录失败: " + child + ", " + e.getMessage());
+                    }
+                }
+            }
+        }
+        return relevant;
+    }
+
+    private void publishNewCommits(WatchedRepository repository) {
+        String head = gitService.resolveHead(repository.path);
+        String previousHead = repository.head;
+        if (head == null || head.equals(previousHead)) {
+            return;
+        }
+        repository.head = head;
+
+        List<GitCommitDTO> commits = gitService.getCommitsBetween(repository.path, previousHead, head, MAX_PUSHED_COMMITS);
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("repoId", repository.id);
+        data.put("head", head);
+        data.put("previousHead", previousHead);
+        data.put("commits", commits);
+
+        for (SseEmitter emitter : repository.emitters) {
+            try {
+                emitter.send(SseEmitter.event().name("commits").id(head).data(data));
+            } catch (IOException | IllegalStateException e) {
+                removeEmitter(repository, emitter);
+            }
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package com.workcheck.service;
 
+import com.workcheck.dto.FileDiffDTO;
 import com.workcheck.dto.GitCommitDTO;
+import com.workcheck.dto.GitCoverageDTO;
+import com.workcheck.dto.GitFileStatDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -14,7 +23,15 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -23,6 +40,19 @@ public class GitService {
 
     private static final DateTimeFormatter COMMIT_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    private static final Pattern NUMSTAT_LINE = Pattern.compile("^(\\d+|-)\t(\\d+|-)\t(.+)$");
+
+    private static final Pattern SOURCE_SUFFIX = Pattern.compile("\\.(java|js|ts|py|go|rs|cpp|c|h|hpp|css|html|xml|yaml|yml|json|sql|md|txt)$");
+
+    /**
+     * 单次返回的差异内容字节上限
+     */
+    @Value("${workcheck.git.diff.max-bytes:1048576}")
+    private int diffMaxBytes = 1048576;
+
+    @Autowired
+    private GitCatFileService catFileService;
+
     /**
      * 获取指定月份的Git提交记录
      * @param projectPath 项目路径
@@ -31,120 +61,7 @@ public class GitService {
      * @return 提交记录列表
      */
     public List<GitCommitDTO> getCommitsForMonth(String projectPath, String userName, String month) {
-        List<GitCommitDTO> commits = new ArrayList<>();
-
-        if (projectPath == null || projectPath.isEmpty()) {
-            // 如果没有指定项目路径，返回空列表
-            return commits;
-        }
-
-        try {
-            // 解析月份
-            YearMonth yearMonth = YearMonth.parse(month);
-            LocalDate startDate = yearMonth.atDay(1);
-            LocalDate endDate = yearMonth.atEndOfMonth();
-
-            // 构建Git命令
-            List<String> command = new ArrayList<>();
-            command.add("git");
-            command.add("log");
-            command.add("--since=" + startDate.format(COMMIT_DATE_FORMAT));
-            command.add("--until=" + endDate.format(COMMIT_DATE_FORMAT));
-            command.add("--pretty=format:%H|%an|%ad|%s");
-            command.add("--date=short");
-            command.add("--name-only");
-
-            if (userName != null && !userName.isEmpty()) {
-                command.add("--author=" + userName);
-            }
-
-            // 执行Git命令
-            ProcessBuilder pb = new ProcessBuilder(command);
-            pb.directory(new File(projectPath));
-            Process process = pb.start();
-
-            // 读取输出
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                GitCommitDTO currentCommit = null;
-
-                while ((line = reader.readLine()) != null) {
-                    if (line.contains("|")) {
-                        // 新的提交记录
-                        if (currentCommit != null) {
-                            commits.add(currentCommit);
-                        }
-
-                        String[] parts = line.split("\\|", 4);
-                        currentCommit = new GitCommitDTO();
-                        currentCommit.setHash(parts[0]);
-                        currentCommit.setAuthor(parts[1]);
-                        currentCommit.setDate(parts[2]);
-                        currentCommit.setMessage(parts[3]);
-                        currentCommit.setFiles(new ArrayList<>());
-                    } else if (!line.trim().isEmpty() && currentCommit != null) {
-                        // 文件路径
-                        currentCommit.getFiles().add(line.trim());
-                    }
-                }
-
-                // 添加最后一个提交
-                if (currentCommit != null) {
-                    commits.add(currentCommit);
-                }
-            }
-
-            // 等待命令执行完成
-            int exitCode = process.waitFor();
-            if (exitCode != 0) {
-                System.err.println("Git命令执行失败，退出码: " + exitCode);
-            }
-
-        } catch (IOException | InterruptedException e) {
-            System.err.println("获取Git提交记录失败: " + e.getMessage());
-            e.printStackTrace();
-        }
-
-        return commits;
-    }
-
-    /**
-     * 获取文件的修改内容
-     * @param projectPath 项目路径
-     * @param commitHash 提交哈希
-     * @param filePath 文件路径
-     * @return 修改内容
-     */
-    public String getFileDiff(String projectPath, String commitHash, String filePath) {
-        try {
-            List<String> command = new ArrayList<>();
-            command.add("git");
-            command.add("show");
-            command.add(commitHash + ":" + filePath);
-
-            ProcessBuilder pb = new ProcessBuilder(command);
-            pb.directory(new File(projectPath));
-            Process process = pb.start();
-
-            StringBuilder output = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append("\n");
-                }
-            }
-
-            int exitCode = process.waitFor();
-            if (exitCode == 0) {
-                return output.toString();
-            } else {
-                return "无法获取文件内容";
-            }
-
-        } catch (IOException | InterruptedException e) {
-            System.err.println("获取文件差异失败: " + e.getMessage());
-            return "获取文件内容失败: " + e.getMessage();
-        }
+        return getCommitsForDateRange(projectPath, userName, month, null, null);
     }
 
     /**
@@ -176,7 +93,7 @@ public class GitService {
 
             ProcessBuilder pb = new ProcessBuilder(command);
             pb.directory(new File(projectPath));
-            Process process = pb.start();
+            Process process = Tracing.startProcess(pb);
 
             StringBuilder output = new StringBuilder();
             try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
@@ -208,78 +125,282 @@ public class GitService {
     }
 
     /**
-     * 获取文件的差异内容（代码变更）
+     * 获取文件的差异内容（代码变更），按行分页并限制读取字节数
+     * 二进制文件在读取内容之前即返回，超过字节上限的部分不会读入内存。
      * @param projectPath 项目路径
      * @param commitHash 提交哈希
      * @param filePath 文件路径
-     * @return 差异内容
+     * @param offset 起始行（从0开始）
+     * @param limit 最多返回的行数
+     * @param maxBytes 最多返回的字节数（不超过 workcheck.git.diff.max-bytes）
+     * @return 差异内容分页
      */
-    public String getFileDiff(String projectPath, String commitHash, String filePath) {
+    public FileDiffDTO getFileDiff(String projectPath, String commitHash, String filePath, int offset, int limit, int maxBytes) {
+        offset = Math.max(offset, 0);
+        limit = limit > 0 ? limit : Integer.MAX_VALUE;
+        maxBytes = maxBytes > 0 ? Math.min(maxBytes, diffMaxBytes) : diffMaxBytes;
+
         try {
-            // 首先尝试获取该提交与父提交的差异
-            List<String> command = new ArrayList<>();
-            command.add("git");
-            command.add("diff");
-            command.add("--unified=3");  // 显示3行上下文
-            command.add(commitHash + "^");  // 父提交
-            command.add(commitHash);
-            command.add("--");
-            command.add(filePath);
+            // 首先尝试获取该提交与父提交的差异（根提交没有父提交，直接读取文件内容）
+            if (hasParentCommit(projectPath, commitHash)) {
+                List<String> command = new ArrayList<>();
+                command.add("git");
+                command.add("diff");
+                command.add("--unified=3");  // 显示3行上下文
+                command.add(commitHash + "^");  // 父提交
+                command.add(commitHash);
+                command.add("--");
+                command.add(filePath);
+
+                DiffPageReader page = new DiffPageReader(offset, limit, maxBytes, false);
+                if (runPaged(projectPath, command, page) && page.totalLines > 0) {
+                    return page.toDTO(offset, null);
+                }
+                // 如果没有差异，可能是新创建的文件
+            }
 
-            ProcessBuilder pb = new ProcessBuilder(command);
-            pb.directory(new File(projectPath));
-            Process process = pb.start();
+            // 如果获取差异失败或为空，尝试获取文件内容
+            DiffPageReader page = new DiffPageReader(offset, limit, maxBytes, true);
+            if (!readBlobPaged(projectPath, commitHash + ":" + filePath, page)) {
+                return new FileDiffDTO("无法获取文件内容");
+            }
 
-            StringBuilder output = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append("\n");
-                }
+            if (page.binary || page.totalLines > 0) {
+                // 添加标识，表示这是新文件内容
+                FileDiffDTO dto = page.toDTO(offset, offset == 0 ? "+++ 新创建的文件内容 +++\n" : null);
+                dto.setNewFile(true);
+                return dto;
             }
+            return new FileDiffDTO("文件在此提交中被创建但没有内容");
 
-            int exitCode = process.waitFor();
-            if (exitCode == 0) {
-                String diff = output.toString();
-                if (!diff.trim().isEmpty()) {
-                    return diff;
-                }
-                // 如果没有差异，可能是新创建的文件
+        } catch (IOException | InterruptedException e) {
+            System.err.println("获取文件差异失败: " + e.getMessage());
+            return new FileDiffDTO("获取文件内容失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 执行 git 命令并分页读取输出
+     * @return 命令是否成功（提前结束读取时视为成功）
+     */
+    private boolean runPaged(String projectPath, List<String> command, DiffPageReader page) throws IOException, InterruptedException {
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.directory(new File(projectPath));
+        Process process = Tracing.startProcess(pb);
+
+        if (!page.read(process.getInputStream())) {
+            // 已读满一页，剩余输出不再需要
+            process.destroy();
+            return true;
+        }
+        return process.waitFor() == 0;
+    }
+
+    /**
+     * 分页读取文件内容，优先通过常驻的 cat-file 进程，不可用时退回 git show
+     * @return 对象是否存在
+     */
+    private boolean readBlobPaged(String projectPath, String object, DiffPageReader page) throws IOException, InterruptedException {
+        if (catFileService != null && catFileService.isEnabled(projectPath)) {
+            try {
+                Boolean found = catFileService.readObject(projectPath, object, (info, content) -> {
+                    if (!"blob".equals(info.getType())) {
+                        return false;
+                    }
+                    page.read(content);
+                    return true;
+                });
+                return Boolean.TRUE.equals(found);
+            } catch (IOException e) {
+                System.err.println("通过 cat-file 读取文件失败，改用 git show: " + e.getMessage());
+                page.reset();
             }
+        }
 
-            // 如果获取差异失败或为空，尝试获取文件内容
-            command = new ArrayList<>();
-            command.add("git");
-            command.add("show");
-            command.add(commitHash + ":" + filePath);
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.add("show");
+        command.add(object);
+        return runPaged(projectPath, command, page);
+    }
 
-            pb = new ProcessBuilder(command);
-            pb.directory(new File(projectPath));
-            process = pb.start();
+    /**
+     * 判断提交是否有父提交
+     */
+    private boolean hasParentCommit(String projectPath, String commitHash) {
+        if (catFileService == null || !catFileService.isEnabled(projectPath)) {
+            return true;
+        }
+        try {
+            return catFileService.getObjectInfo(projectPath, commitHash + "^") != null;
+        } catch (IOException e) {
+            // 无法判断时仍按原流程执行 git diff
+            return true;
+        }
+    }
 
-            output = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append("\n");
+    /**
+     * 按字节读取 git 输出的分页器：跳过 offset 行、最多保留 limit 行且不超过 maxBytes 字节，
+     * 读满后立即停止，剩余输出不再读取。
+     */
+    private static class DiffPageReader {
+        private static final int BINARY_SNIFF_BYTES = 8000;
+        // 跳过的头部行只保留前面这些字节，足够判断二进制提示和 "@@"
+        private static final int HEADER_LINE_BYTES = 1024;
+
+        private final int offset;
+        private final int limit;
+        private final int maxBytes;
+        private final boolean rawContent;
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        private int totalLines;
+        private int lineCount;
+        private boolean binary;
+        private boolean truncated;
+        private boolean hasMore;
+
+        DiffPageReader(int offset, int limit, int maxBytes, boolean rawContent) {
+            this.offset = offset;
+            this.limit = limit;
+            this.maxBytes = maxBytes;
+            this.rawContent = rawContent;
+        }
+
+        void reset() {
+            out.reset();
+            totalLines = 0;
+            lineCount = 0;
+            binary = false;
+            truncated = false;
+            hasMore = false;
+        }
+
+        /**
+         * @return 是否读到了输出末尾
+         */
+        boolean read(InputStream stream) throws IOException {
+            BufferedInputStream in = new BufferedInputStream(stream, BINARY_SNIFF_BYTES);
+
+            // 文件内容：与 git 相同，前 8000 字节中出现 NUL 即视为二进制
+            if (rawContent && isBinary(in)) {
+                binary = true;
+                return false;
+            }
+
+            // diff 的文件头（第一个 "@@" 之前）中才会出现二进制提示
+            boolean inHeader = !rawContent;
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int lineBytes = 0;
+            int b;
+            while ((b = in.read()) != -1) {
+                boolean keep = totalLines >= offset;
+                if (keep && lineCount >= limit) {
+                    hasMore = true;
+                    return false;
+                }
+                if (keep && out.size() + line.size() >= maxBytes) {
+                    // 单行就超过上限时仍返回截断后的这一行，保证分页能够前进
+                    if (lineCount == 0) {
+                        line.writeTo(out);
+                        out.write('\n');
+                        lineCount++;
+                    }
+                    truncated = true;
+                    hasMore = true;
+                    return false;
+                }
+
+                // 跳过的行不保留内容，头部行只保留开头用于判断
+                lineBytes++;
+                if (keep || (inHeader && line.size() <= HEADER_LINE_BYTES)) {
+                    line.write(b);
+                }
+                if (b != '\n') {
+                    continue;
+                }
+
+                if (inHeader) {
+                    // diff 输出中二进制文件只有一行 "Binary files ... differ"
+                    if (isBinaryNotice(line, lineBytes)) {
+                        binary = true;
+                        return false;
+                    }
+                    inHeader = !startsWithHunk(line);
+                }
+                totalLines++;
+                if (keep) {
+                    line.writeTo(out);
+                    lineCount++;
                 }
+                line.reset();
+                lineBytes = 0;
             }
 
-            exitCode = process.waitFor();
-            if (exitCode == 0) {
-                String content = output.toString();
-                if (!content.trim().isEmpty()) {
-                    // 添加标识，表示这是新文件内容
-                    return "+++ 新创建的文件内容 +++\n" + content;
+            // 最后一行没有换行符
+            if (lineBytes > 0) {
+                totalLines++;
+                if (totalLines > offset && lineCount < limit) {
+                    if (lineCount > 0 && out.size() + line.size() + 1 > maxBytes) {
+                        truncated = true;
+                        hasMore = true;
+                        return true;
+                    }
+                    line.writeTo(out);
+                    out.write('\n');
+                    lineCount++;
                 }
-                return "文件在此提交中被创建但没有内容";
             }
+            return true;
+        }
 
-            return "无法获取文件内容";
+        private static boolean isBinary(BufferedInputStream in) throws IOException {
+            in.mark(BINARY_SNIFF_BYTES);
+            byte[] head = new byte[BINARY_SNIFF_BYTES];
+            int n = 0;
+            int r;
+            while (n < head.length && (r = in.read(head, n, head.length - n)) != -1) {
+                n += r;
+            }
+            in.reset();
+            for (int i = 0; i < n; i++) {
+                if (head[i] == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
 
-        } catch (IOException | InterruptedException e) {
-            System.err.println("获取文件差异失败: " + e.getMessage());
-            return "获取文件内容失败: " + e.getMessage();
+        /**
+         * 整行（去掉行尾换行符）为 "Binary files ... differ"
+         */
+        private static boolean isBinaryNotice(ByteArrayOutputStream line, int lineBytes) {
+            if (lineBytes > HEADER_LINE_BYTES) {
+                return false;
+            }
+            String text = new String(line.toByteArray(), 0, line.size() - 1, StandardCharsets.UTF_8);
+            return text.startsWith("Binary files ") && text.endsWith(" differ");
+        }
+
+        private static boolean startsWithHunk(ByteArrayOutputStream line) {
+            byte[] bytes = line.toByteArray();
+            return bytes.length >= 2 && bytes[0] == '@' && bytes[1] == '@';
+        }
+
+        FileDiffDTO toDTO(int offset, String prefix) {
+            FileDiffDTO dto = new FileDiffDTO();
+            if (binary) {
+                dto.setContent("二进制文件，不显示内容");
+            } else {
+                String content = new String(out.toByteArray(), StandardCharsets.UTF_8);
+                dto.setContent(prefix != null ? prefix + content : content);
+            }
+            dto.setBinary(binary);
+            dto.setTruncated(truncated);
+            dto.setOffset(offset);
+            dto.setLineCount(lineCount);
+            dto.setHasMore(hasMore);
+            return dto;
         }
     }
 
@@ -297,7 +418,7 @@ public class GitService {
 
             ProcessBuilder pb = new ProcessBuilder(command);
             pb.directory(new File(projectPath));
-            Process process = pb.start();
+            Process process = Tracing.startProcess(pb);
 
             StringBuilder output = new StringBuilder();
             try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
@@ -329,7 +450,7 @@ public class GitService {
 
             ProcessBuilder pb = new ProcessBuilder(command);
             pb.directory(new File(projectPath));
-            Process process = pb.start();
+            Process process = Tracing.startProcess(pb);
 
             int exitCode = process.waitFor();
             if (exitCode == 0) {
@@ -340,7 +461,7 @@ public class GitService {
             command.set(2, "refs/remotes/origin/master");
             pb = new ProcessBuilder(command);
             pb.directory(new File(projectPath));
-            process = pb.start();
+            process = Tracing.startProcess(pb);
 
             exitCode = process.waitFor();
             if (exitCode == 0) {
@@ -364,6 +485,68 @@ public class GitService {
      * @return 提交记录列表
      */
     public List<GitCommitDTO> getCommitsForDateRange(String projectPath, String userName, String month, String startDate, String endDate) {
+        return getCommitsForDateRange(projectPath, userName, month, startDate, endDate, true);
+    }
+
+    /**
+     * 获取指定时间范围的Git提交记录
+     * @param includeLineStats 是否在同一次 git log 中统计每个文件的增删行数（--numstat），
+     *                         为false时只列出文件名（--name-only），代价更低
+     */
+    public List<GitCommitDTO> getCommitsForDateRange(String projectPath, String userName, String month, String startDate, String endDate,
+                                                     boolean includeLineStats) {
+        return runLog(projectPath, userName, month, startDate, endDate, includeLineStats, null);
+    }
+
+    /**
+     * 获取指定文件的Git提交历史
+     * 文件名是仓库中的精确路径时，把路径交给 git log 过滤，可以利用 commit-graph 中的 changed-path Bloom 过滤器；
+     * 否则（只有文件名、路径片段等）退回全量扫描后按 isFileMatch 规则过滤。
+     */
+    public List<GitCommitDTO> getFileCommits(String projectPath, String userName, String month, String startDate, String endDate,
+                                             String fileName) {
+        String literalPath = resolveLiteralPath(projectPath, fileName);
+        List<GitCommitDTO> commits = runLog(projectPath, userName, month, startDate, endDate, true, literalPath);
+        if (literalPath != null) {
+            return commits;
+        }
+
+        // 过滤出包含指定文件的提交
+        List<GitCommitDTO> fileCommits = new ArrayList<>();
+        for (GitCommitDTO commit : commits) {
+            if (commit.getFiles() != null) {
+                // 智能匹配文件路径
+                for (String file : commit.getFiles()) {
+                    if (isFileMatch(fileName, file)) {
+                        fileCommits.add(commit);
+                        break;
+                    }
+                }
+            }
+        }
+        return fileCommits;
+    }
+
+    /**
+     * 判断文件名是否为仓库中（HEAD）存在的精确路径
+     * @return 精确路径，无法确定时返回null
+     */
+    private String resolveLiteralPath(String projectPath, String fileName) {
+        if (fileName == null || fileName.isEmpty() || !fileName.contains("/")
+                || catFileService == null || !catFileService.isEnabled(projectPath)) {
+            return null;
+        }
+        String path = fileName.startsWith("/") ? fileName.substring(1) : fileName;
+        try {
+            GitCatFileService.ObjectInfo info = catFileService.getObjectInfo(projectPath, "HEAD:" + path);
+            return info != null && "blob".equals(info.getType()) ? path : null;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private List<GitCommitDTO> runLog(String projectPath, String userName, String month, String startDate, String endDate,
+                                      boolean includeLineStats, String literalPath) {
         List<GitCommitDTO> commits = new ArrayList<>();
 
         if (projectPath == null || projectPath.isEmpty()) {
@@ -391,46 +574,27 @@ public class GitService {
 
             command.add("--pretty=format:%H|%an|%ad|%s");
             command.add("--date=short");
-            command.add("--name-only");
+            command.add(includeLineStats ? "--numstat" : "--name-only");
 
             if (userName != null && !userName.isEmpty()) {
                 command.add("--author=" + userName);
             }
 
+            // 按路径过滤提交，--full-diff 保证每个提交仍列出全部文件
+            if (literalPath != null) {
+                command.add("--full-diff");
+                command.add("--");
+                command.add(":(literal)" + literalPath);
+            }
+
             // 执行Git命令
             ProcessBuilder pb = new ProcessBuilder(command);
             pb.directory(new File(projectPath));
-            Process process = pb.start();
+            Process process = Tracing.startProcess(pb);
 
             // 读取输出
             try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                GitCommitDTO currentCommit = null;
-
-                while ((line = reader.readLine()) != null) {
-                    if (line.contains("|")) {
-                        // 新的提交记录
-                        if (currentCommit != null) {
-                            commits.add(currentCommit);
-                        }
-
-                        String[] parts = line.split("\\|", 4);
-                        currentCommit = new GitCommitDTO();
-                        currentCommit.setHash(parts[0]);
-                        currentCommit.setAuthor(parts[1]);
-                        currentCommit.setDate(parts[2]);
-                        currentCommit.setMessage(parts[3]);
-                        currentCommit.setFiles(new ArrayList<>());
-                    } else if (!line.trim().isEmpty() && currentCommit != null) {
-                        // 文件路径
-                        currentCommit.getFiles().add(line.trim());
-                    }
-                }
-
-                // 添加最后一个提交
-                if (currentCommit != null) {
-                    commits.add(currentCommit);
-                }
+                commits = parseLog(reader);
             }
 
             // 等待命令执行完成
@@ -446,4 +610,322 @@ public class GitService {
 
         return commits;
     }
-}
\ No newline at end of file
+
+    /**
+     * 获取两个提交之间新增的提交记录（from..to）
+     * @param projectPath 项目路径
+     * @param fromExclusive 起始提交（不包含），为null时从 to 开始向前取
+     * @param to 结束提交
+     * @param maxCount 最多返回的提交数
+     * @return 提交记录列表（新的在前）
+     */
+    public List<GitCommitDTO> getCommitsBetween(String projectPath, String fromExclusive, String to, int maxCount) {
+        List<GitCommitDTO> commits = new ArrayList<>();
+
+        try {
+            List<String> command = new ArrayList<>();
+            command.add("git");
+            command.add("log");
+            command.add("--pretty=format:%H|%an|%ad|%s");
+            command.add("--date=short");
+            command.add("--numstat");
+            command.add("--max-count=" + maxCount);
+            command.add(fromExclusive != null ? fromExclusive + ".." + to : to);
+
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.directory(new File(projectPath));
+            Process process = Tracing.startProcess(pb);
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                commits = parseLog(reader);
+            }
+
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                System.err.println("Git命令执行失败，退出码: " + exitCode);
+            }
+
+        } catch (IOException | InterruptedException e) {
+            System.err.println("获取Git提交记录失败: " + e.getMessage());
+        }
+
+        return commits;
+    }
+
+    /**
+     * 单次返回的差异内容上限（字节）
+     */
+    public int getDiffMaxBytes() {
+        return diffMaxBytes;
+    }
+
+    /**
+     * 把提交哈希（可以是缩写或引用名）解析为完整的提交ID
+     * @param projectPath 项目路径
+     * @param commitHash 提交哈希
+     * @return 完整提交ID，不存在或无法解析时返回null
+     */
+    public String resolveCommit(String projectPath, String commitHash) {
+        if (commitHash == null || commitHash.isEmpty() || catFileService == null || !catFileService.isEnabled(projectPath)) {
+            return null;
+        }
+        try {
+            GitCatFileService.ObjectInfo info = catFileService.getObjectInfo(projectPath, commitHash + "^{commit}");
+            return info != null ? info.getOid() : null;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 获取当前HEAD指向的提交
+     * @param projectPath 项目路径
+     * @return 提交哈希，无法获取时返回null
+     */
+    public String resolveHead(String projectPath) {
+        // 优先通过常驻 cat-file 进程解析，每次请求都会重新读取引用
+        if (catFileService != null && catFileService.isEnabled(projectPath)) {
+            try {
+                GitCatFileService.ObjectInfo info = catFileService.getObjectInfo(projectPath, "HEAD");
+                return info != null ? info.getOid() : null;
+            } catch (IOException e) {
+                System.err.println("通过 cat-file 获取HEAD失败，改用 rev-parse: " + e.getMessage());
+            }
+        }
+
+        try {
+            ProcessBuilder pb = new ProcessBuilder("git", "rev-parse", "--verify", "-q", "HEAD");
+            pb.directory(new File(projectPath));
+            Process process = Tracing.startProcess(pb);
+
+            String head;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                head = reader.readLine();
+            }
+
+            if (process.waitFor() == 0 && head != null && !head.trim().isEmpty()) {
+                return head.trim();
+            }
+        } catch (IOException | InterruptedException e) {
+            System.err.println("获取HEAD失败: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * 解析 git log 输出，兼容 --name-only 与 --numstat 两种文件列表格式
+     */
+    private List<GitCommitDTO> parseLog(BufferedReader reader) throws IOException {
+        List<GitCommitDTO> commits = new ArrayList<>();
+        String line;
+        GitCommitDTO currentCommit = null;
+
+        while ((line = reader.readLine()) != null) {
+            Matcher numstat = NUMSTAT_LINE.matcher(line);
+            if (numstat.matches() && currentCommit != null) {
+                // 增删行数统计：二进制文件的行数显示为 "-"
+                String path = resolveRenamedPath(numstat.group(3).trim());
+                boolean binary = "-".equals(numstat.group(1));
+                Integer added = binary ? null : Integer.valueOf(numstat.group(1));
+                Integer removed = binary ? null : Integer.valueOf(numstat.group(2));
+                currentCommit.getFiles().add(path);
+                currentCommit.getFileStats().add(new GitFileStatDTO(path, added, removed, binary));
+                if (!binary) {
+                    currentCommit.setAdditions(currentCommit.getAdditions() + added);
+                    currentCommit.setDeletions(currentCommit.getDeletions() + removed);
+                }
+            } else if (line.contains("|")) {
+                // 新的提交记录
+                if (currentCommit != null) {
+                    commits.add(currentCommit);
+                }
+
+                String[] parts = line.split("\\|", 4);
+                currentCommit = new GitCommitDTO();
+                currentCommit.setHash(parts[0]);
+                currentCommit.setAuthor(parts[1]);
+                currentCommit.setDate(parts[2]);
+                currentCommit.setMessage(parts[3]);
+                currentCommit.setFiles(new ArrayList<>());
+                currentCommit.setFileStats(new ArrayList<>());
+            } else if (!line.trim().isEmpty() && currentCommit != null) {
+                // 文件路径
+                currentCommit.getFiles().add(line.trim());
+            }
+        }
+
+        // 添加最后一个提交
+        if (currentCommit != null) {
+            commits.add(currentCommit);
+        }
+        return commits;
+    }
+
+    /**
+     * numstat 中的重命名显示为 "old => new" 或 "dir/{old => new}/file"，取新路径
+     */
+    private static String resolveRenamedPath(String path) {
+        int arrow = path.indexOf(" => ");
+        if (arrow < 0) {
+            return path;
+        }
+        int open = path.lastIndexOf('{', arrow);
+        int close = path.indexOf('}', arrow);
+        if (open >= 0 && close > arrow) {
+            String resolved = path.substring(0, open) + path.substring(arrow + 4, close) + path.substring(close + 1);
+            return resolved.replace("//", "/");
+        }
+        return path.substring(arrow + 4);
+    }
+
+    /**
+     * 一次扫描提交记录，为多个文件分别匹配提交历史
+     * @param commits 提交记录（通常来自一次 getCommitsForDateRange 调用）
+     * @param fileNames 文件路径列表，匹配规则与 isFileMatch 相同
+     * @return 文件路径 -> 包含该文件的提交记录（按输入顺序）
+     */
+    public Map<String, List<GitCommitDTO>> matchFileCommits(List<GitCommitDTO> commits, Collection<String> fileNames) {
+        Map<String, List<GitCommitDTO>> result = new LinkedHashMap<>();
+        Map<String, String> fileNameBases = new HashMap<>();
+        for (String fileName : fileNames) {
+            if (fileName != null && !fileName.trim().isEmpty() && !result.containsKey(fileName)) {
+                result.put(fileName, new ArrayList<>());
+                fileNameBases.put(fileName, stripSourceSuffix(fileName));
+            }
+        }
+
+        // 同一个文件会出现在多个提交中，缓存去后缀结果避免重复执行正则
+        Map<String, String> gitFileBases = new HashMap<>();
+        for (GitCommitDTO commit : commits) {
+            if (commit.getFiles() == null || commit.getFiles().isEmpty()) {
+                continue;
+            }
+
+            Set<String> exactFiles = new HashSet<>(commit.getFiles());
+            for (Map.Entry<String, List<GitCommitDTO>> entry : result.entrySet()) {
+                String fileName = entry.getKey();
+                if (exactFiles.contains(fileName)) {
+                    entry.getValue().add(commit);
+                    continue;
+                }
+                for (String gitFile : commit.getFiles()) {
+                    String gitFileBase = gitFileBases.computeIfAbsent(gitFile, GitService::stripSourceSuffix);
+                    if (isFileMatch(fileName, fileNameBases.get(fileName), gitFile, gitFileBase)) {
+                        entry.getValue().add(commit);
+                        break;
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * 核对Git变更文件与任务登记文件
+     * 先用哈希集合做精确匹配，未命中的再按 isFileMatch 规则模糊匹配，一次遍历变更文件得到两个差集。
+     * @param commits 提交记录
+     * @param listedFiles 任务中登记的文件路径
+     * @return 已变更未登记、已登记未变更的文件
+     */
+    public GitCoverageDTO buildCoverageReport(List<GitCommitDTO> commits, Collection<String> listedFiles) {
+        Set<String> changed = new LinkedHashSet<>();
+        for (GitCommitDTO commit : commits) {
+            if (commit.getFiles() != null) {
+                changed.addAll(commit.getFiles());
+            }
+        }
+
+        Map<String, String> listedBases = new LinkedHashMap<>();
+        for (String file : listedFiles) {
+            if (file != null && !file.trim().isEmpty()) {
+                listedBases.put(file.trim(), stripSourceSuffix(file.trim()));
+            }
+        }
+
+        Set<String> unmatchedListed = new LinkedHashSet<>(listedBases.keySet());
+        List<String> changedButUnlisted = new ArrayList<>();
+        int covered = 0;
+
+        for (String gitFile : changed) {
+            boolean isCovered = false;
+            if (listedBases.containsKey(gitFile)) {
+                isCovered = true;
+                unmatchedListed.remove(gitFile);
+            }
+
+            String gitFileBase = stripSourceSuffix(gitFile);
+            // 尚未匹配过的登记文件都要检查一遍，才能得到“已登记未变更”的结果
+            Iterator<String> it = unmatchedListed.iterator();
+            while (it.hasNext()) {
+                String fileName = it.next();
+                if (isFileMatch(fileName, listedBases.get(fileName), gitFile, gitFileBase)) {
+                    isCovered = true;
+                    it.remove();
+                }
+            }
+
+            // 已匹配过的登记文件也可能覆盖当前文件（例如只登记了目录名）
+            if (!isCovered) {
+                for (Map.Entry<String, String> entry : listedBases.entrySet()) {
+                    if (!unmatchedListed.contains(entry.getKey())
+                            && isFileMatch(entry.getKey(), entry.getValue(), gitFile, gitFileBase)) {
+                        isCovered = true;
+                        break;
+                    }
+                }
+            }
+
+            if (isCovered) {
+                covered++;
+            } else {
+                changedButUnlisted.add(gitFile);
+            }
+        }
+
+        GitCoverageDTO report = new GitCoverageDTO();
+        report.setChangedCount(changed.size());
+        report.setListedCount(listedBases.size());
+        report.setCoveredCount(covered);
+        report.setChangedButUnlisted(changedButUnlisted);
+        report.setListedButUnchanged(new ArrayList<>(unmatchedListed));
+        return report;
+    }
+
+    /**
+     * 智能匹配文件路径
+     * @param fileName 任务中登记的文件名或路径
+     * @param gitFile Git提交中的文件路径
+     * @return 是否匹配
+     */
+    public boolean isFileMatch(String fileName, String gitFile) {
+        return isFileMatch(fileName, stripSourceSuffix(fileName), gitFile, stripSourceSuffix(gitFile));
+    }
+
+    private boolean isFileMatch(String fileName, String fileNameBase, String gitFile, String gitFileBase) {
+        // 如果完全匹配
+        if (fileName.equals(gitFile)) {
+            return true;
+        }
+
+        // 如果是文件名（不包含路径）
+        if (!fileName.contains("/") && gitFile.contains("/")) {
+            String gitFileName = gitFile.substring(gitFile.lastIndexOf("/") + 1);
+            if (fileName.equals(gitFileName)) {
+                return true;
+            }
+        }
+
+        // 如果Git文件路径包含输入的文件名
+        if (gitFile.contains(fileName)) {
+            return true;
+        }
+
+        // 模糊匹配（去除常见后缀）
+        return fileNameBase.length() > 3 && gitFileBase.contains(fileNameBase);
+    }
+
+    private static String stripSourceSuffix(String path) {
+        return SOURCE_SUFFIX.matcher(path).replaceAll("");
+    }
+}
@@ -0,0 +1,62 @@
+package com.workcheck.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.regex.Pattern;
+
+/**
+ * 定期归档已关闭的月份
+ * 只保留最近 keep-months 个月（含当前月）在热表中，更早的月份逐个压缩为归档快照，
+ * 每个月份单独一个事务，失败的月份下次再试。
+ */
+@Service
+public class MonthArchiveJob {
+
+    private static final Pattern MONTH_PATTERN = Pattern.compile("\\d{4}-\\d{2}");
+
+    @Value("${workcheck.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${workcheck.archive.keep-months:2}")
+    private int keepMonths = 2;
+
+    @Autowired
+    private WorkCheckService workCheckService;
+
+    @Scheduled(cron = "${workcheck.archive.cron:0 30 3 * * *}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archiveClosedMonths();
+        }
+    }
+
+    /**
+     * 归档早于保留期的月份
+     * @return 归档的（用户, 月份）数
+     */
+    public int archiveClosedMonths() {
+        String cutoff = YearMonth.now().minusMonths(Math.max(keepMonths, 1) - 1).toString();
+        int archived = 0;
+        for (String[] userMonth : workCheckService.getHotUserMonths()) {
+            String month = userMonth[1];
+            if (month == null || !MONTH_PATTERN.matcher(month).matches() || month.compareTo(cutoff) >= 0) {
+                continue;
+            }
+            try {
+                if (workCheckService.archiveMonth(userMonth[0], month)) {
+                    archived++;
+                }
+            } catch (Exception e) {
+                System.err.println("归档失败: " + userMonth[0] + " " + month + " - " + e.getMessage());
+            }
+        }
+        if (archived > 0) {
+            System.out.println("已归档 " + archived + " 个用户月份（保留 " + cutoff + " 及之后的月份）");
+        }
+        return archived;
+    }
+}
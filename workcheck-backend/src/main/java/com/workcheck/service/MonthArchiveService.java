@@ -0,0 +1,172 @@
+package com.workcheck.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workcheck.dto.ArchivedMonthDTO;
+import com.workcheck.dto.TaskDTO;
+import com.workcheck.entity.ArchivedMonth;
+import com.workcheck.entity.ArchivedMonthPath;
+import com.workcheck.repository.ArchivedMonthPathRepository;
+import com.workcheck.repository.ArchivedMonthRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 归档快照的读写
+ * 已关闭的月份整体保存为一行 gzip 压缩的任务列表JSON，并记录其中登记过的文件（路径字典ID），
+ * 热表（tasks、task_files、task_checks）只保留近期月份。
+ */
+@Service
+public class MonthArchiveService {
+
+    private static final TypeReference<List<TaskDTO>> TASK_LIST = new TypeReference<List<TaskDTO>>() {};
+
+    @Autowired
+    private ArchivedMonthRepository archivedMonthRepository;
+
+    @Autowired
+    private ArchivedMonthPathRepository archivedMonthPathRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public Optional<ArchivedMonth> find(String userName, String month) {
+        return archivedMonthRepository.findByUserNameAndMonth(userName, month);
+    }
+
+    /**
+     * 解压归档快照中的任务列表
+     */
+    public List<TaskDTO> readTasks(ArchivedMonth archive) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(archive.getPayload()))) {
+            return objectMapper.readValue(in, TASK_LIST);
+        } catch (IOException e) {
+            throw new IllegalStateException("读取归档失败: " + archive.getUserName() + " " + archive.getMonth(), e);
+        }
+    }
+
+    /**
+     * 保存归档快照
+     * @param pathIds 任务中登记的文件在路径字典中的ID
+     */
+    public ArchivedMonth store(String userName, String month, long version, List<TaskDTO> tasks, Collection<Long> pathIds) {
+        // JSON 直接写入 gzip 流，不生成完整的未压缩字节数组，只统计其长度
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        CountingOutputStream json;
+        try (OutputStream out = new GZIPOutputStream(compressed)) {
+            json = new CountingOutputStream(out);
+            objectMapper.writerFor(TASK_LIST).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(json, tasks);
+        } catch (IOException e) {
+            throw new IllegalStateException("写入归档失败: " + userName + " " + month, e);
+        }
+
+        ArchivedMonth archive = new ArchivedMonth();
+        archive.setUserName(userName);
+        archive.setMonth(month);
+        archive.setVersion(version);
+        archive.setTaskCount(tasks.size());
+        archive.setRawBytes((int) json.getCount());
+        archive.setStoredBytes(compressed.size());
+        archive.setPayload(compressed.toByteArray());
+        ArchivedMonth saved = archivedMonthRepository.save(archive);
+
+        List<ArchivedMonthPath> paths = new ArrayList<>();
+        for (Long pathId : pathIds) {
+            paths.add(new ArchivedMonthPath(saved.getId(), pathId));
+        }
+        archivedMonthPathRepository.saveAll(paths);
+        return saved;
+    }
+
+    /**
+     * 删除归档快照（月份重新写入热表时）
+     */
+    public void delete(ArchivedMonth archive) {
+        archivedMonthPathRepository.deleteByArchiveId(archive.getId());
+        archivedMonthRepository.deleteArchive(archive.getId());
+    }
+
+    /**
+     * 登记过指定文件的归档快照
+     */
+    public List<ArchivedMonth> findByPathIds(Collection<Long> pathIds) {
+        if (pathIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> archiveIds = archivedMonthPathRepository.findArchiveIdsByPathIds(pathIds);
+        return archiveIds.isEmpty() ? new ArrayList<>() : archivedMonthRepository.findByIdIn(archiveIds);
+    }
+
+    /**
+     * 所有已归档的（用户, 月份）
+     */
+    public List<String[]> getUserMonths() {
+        List<String[]> userMonths = new ArrayList<>();
+        for (Object[] row : archivedMonthRepository.findUserMonths()) {
+            userMonths.add(new String[]{(String) row[0], (String) row[1]});
+        }
+        return userMonths;
+    }
+
+    /**
+     * 归档列表，不读取快照内容
+     */
+    public List<ArchivedMonthDTO> listArchives() {
+        List<ArchivedMonthDTO> archives = new ArrayList<>();
+        for (Object[] row : archivedMonthRepository.findSummaries()) {
+            ArchivedMonthDTO dto = new ArchivedMonthDTO();
+            dto.setUserName((String) row[1]);
+            dto.setMonth((String) row[2]);
+            dto.setVersion(((Number) row[3]).longValue());
+            dto.setTaskCount(((Number) row[4]).intValue());
+            dto.setRawBytes(((Number) row[5]).intValue());
+            dto.setStoredBytes(((Number) row[6]).intValue());
+            dto.setArchivedAt((Date) row[7]);
+            archives.add(dto);
+        }
+        return archives;
+    }
+
+    /**
+     * 统计写入的字节数（归档前的JSON长度）
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.workcheck.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 读写分离的路由判断
+ * 只读事务（@Transactional(readOnly = true)）使用读库，其余事务使用主库。以下情况只读事务也使用主库：
+ * 读库不可用或复制延迟超过 max-lag-ms；读取的用户月份（或检查项模板）在 max-lag-ms 内刚写入过，读库可能还没有同步。
+ * 未开启读写分离时所有方法都不起作用。
+ */
+@Service
+public class ReadReplicaRouting {
+
+    public static final String TEMPLATE_KEY = "check-template";
+
+    @Value("${workcheck.datasource.read.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${workcheck.datasource.read.max-lag-ms:2000}")
+    private long maxLagMs = 2000;
+
+    // 查询复制延迟的语句，为空时只检查读库能否连接
+    @Value("${workcheck.datasource.read.lag-query:SHOW SLAVE STATUS}")
+    private String lagQuery = "SHOW SLAVE STATUS";
+
+    @Autowired(required = false)
+    @Qualifier("readDataSource")
+    private DataSource readDataSource;
+
+    /**
+     * 最近写入的键 -> 写入（提交）时间
+     */
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+
+    /**
+     * 当前只读事务是否改用主库
+     */
+    private final ThreadLocal<Boolean> primaryOnly = new ThreadLocal<>();
+
+    // 启动后第一次检查通过之前不使用读库
+    private volatile boolean replicaAvailable = false;
+    private volatile long replicaLagMs = 0;
+
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong primaryReads = new AtomicLong();
+
+    public static String key(String userName, String month) {
+        return userName + "|" + month;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 当前连接是否取自读库，在事务中第一次执行SQL时调用
+     */
+    public boolean useReplica() {
+        if (!enabled || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        if (!replicaAvailable || Boolean.TRUE.equals(primaryOnly.get())) {
+            primaryReads.incrementAndGet();
+            return false;
+        }
+        replicaReads.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 记录写入，事务提交后开始计时
+     */
+    public void recordWrite(String key) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWrites.put(key, System.currentTimeMillis());
+                }
+            });
+        } else {
+            recentWrites.put(key, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * 只读方法开始时调用（执行SQL之前）：读取的键刚写入过时，本次事务改用主库
+     */
+    public void routeRead(String key) {
+        if (!enabled || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Long writtenAt = recentWrites.get(key);
+        if (writtenAt == null) {
+            return;
+        }
+        if (System.currentTimeMillis() - writtenAt > maxLagMs) {
+            recentWrites.remove(key, writtenAt);
+            return;
+        }
+        if (primaryOnly.get() == null) {
+            primaryOnly.set(Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    primaryOnly.remove();
+                }
+            });
+        }
+    }
+
+    /**
+     * 定期检查读库：连接失败、复制停止或延迟超过 max-lag-ms 时只读事务改用主库
+     */
+    @Scheduled(fixedDelayString = "${workcheck.datasource.read.check-interval-ms:5000}")
+    public void checkReplica() {
+        if (!enabled || readDataSource == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        recentWrites.entrySet().removeIf(entry -> now - entry.getValue() > maxLagMs);
+
+        boolean available;
+        long lagMs = 0;
+        try (Connection connection = readDataSource.getConnection()) {
+            if (lagQuery == null || lagQuery.trim().isEmpty()) {
+                available = connection.isValid(2);
+            } else {
+                Long lagSeconds = queryLagSeconds(connection);
+                available = lagSeconds != null;
+                lagMs = lagSeconds != null ? lagSeconds * 1000 : -1;
+            }
+        } catch (SQLException e) {
+            available = false;
+            lagMs = -1;
+            if (replicaAvailable) {
+                System.err.println("读库不可用，读取改用主库: " + e.getMessage());
+            }
+        }
+        replicaLagMs = lagMs;
+        boolean usable = available && lagMs <= maxLagMs;
+        if (usable != replicaAvailable) {
+            System.out.println(usable ? "读库可用" : "读库不可用或延迟过大（" + lagMs + "ms），读取改用主库");
+        }
+        replicaAvailable = usable;
+    }
+
+    /**
+     * 从读库取连接失败，直到下次检查通过前读取改用主库
+     */
+    public void markReplicaFailed(Exception e) {
+        if (replicaAvailable) {
+            System.err.println("读库连接失败，读取改用主库: " + e.getMessage());
+        }
+        replicaAvailable = false;
+    }
+
+    /**
+     * 读写分离状态
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("replicaAvailable", replicaAvailable);
+        stats.put("replicaLagMs", replicaLagMs);
+        stats.put("replicaReads", replicaReads.get());
+        stats.put("primaryReads", primaryReads.get());
+        stats.put("recentWrites", recentWrites.size());
+        return stats;
+    }
+
+    /**
+     * 复制延迟（秒）；不是从库（没有复制状态）时为0，复制停止时为null
+     */
+    private Long queryLagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return 0L;
+            }
+            // MySQL 8.0.22 起列名为 Seconds_Behind_Source
+            Object lag;
+            try {
+                lag = resultSet.getObject("Seconds_Behind_Master");
+            } catch (SQLException e) {
+                lag = resultSet.getObject("Seconds_Behind_Source");
+            }
+            return lag != null ? ((Number) lag).longValue() : null;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.workcheck.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按（用户, 月份）加锁，同一用户月份的保存、归档依次执行，不同用户月份互不影响
+ * 须在事务中调用，锁在事务提交或回滚后释放，后一个保存读到的是前一个保存提交后的数据。
+ * 进程内使用分段锁（用户月份哈希到固定数量的 ReentrantLock）；
+ * 多实例部署时设置 mode=mysql，另外在当前事务的连接上加 MySQL GET_LOCK 命名锁。
+ */
+@Service
+public class SaveLockService {
+
+    private static final String MODE_MYSQL = "mysql";
+
+    @Value("${workcheck.save.lock.mode:local}")
+    private String mode = "local";
+
+    @Value("${workcheck.save.lock.stripes:64}")
+    private int stripes = 64;
+
+    @Value("${workcheck.save.lock.timeout-ms:10000}")
+    private long timeoutMs = 10000;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private ReentrantLock[] locks;
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong contended = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicInteger held = new AtomicInteger();
+
+    @PostConstruct
+    public void init() {
+        locks = new ReentrantLock[Math.max(1, stripes)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * 获取（用户, 月份）的锁，当前事务结束后自动释放；同一线程可重复获取
+     * @throws IllegalStateException 等待超时或不在事务中
+     */
+    public void lock(String userName, String month) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("保存锁须在事务中获取");
+        }
+        String key = userName + "|" + month;
+        ReentrantLock lock = locks[(key.hashCode() & 0x7fffffff) % locks.length];
+
+        long start = System.nanoTime();
+        boolean locked = lock.tryLock();
+        if (!locked) {
+            contended.incrementAndGet();
+            try {
+                locked = lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        long waited = System.nanoTime() - start;
+        waitNanos.addAndGet(waited);
+        maxWaitNanos.accumulate(waited);
+        if (!locked) {
+            timeouts.incrementAndGet();
+            throw new IllegalStateException("保存繁忙，请稍后重试: " + userName + " " + month);
+        }
+
+        Connection connection = null;
+        String lockName = null;
+        if (MODE_MYSQL.equalsIgnoreCase(mode)) {
+            // 同一连接可重复获取同名锁（MySQL 5.7+），每次获取对应一次释放
+            lockName = "workcheck:" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+            try {
+                connection = DataSourceUtils.getConnection(dataSource);
+                acquireAdvisoryLock(connection, lockName);
+            } catch (RuntimeException e) {
+                lock.unlock();
+                timeouts.incrementAndGet();
+                throw e;
+            }
+        }
+
+        acquired.incrementAndGet();
+        held.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new Release(lock, connection, lockName));
+    }
+
+    /**
+     * 锁的使用情况
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("mode", mode);
+        stats.put("stripes", locks.length);
+        stats.put("acquired", acquired.get());
+        stats.put("contended", contended.get());
+        stats.put("timeouts", timeouts.get());
+        stats.put("held", held.get());
+        stats.put("totalWaitMs", TimeUnit.NANOSECONDS.toMillis(waitNanos.get()));
+        stats.put("maxWaitMs", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+        return stats;
+    }
+
+    private void acquireAdvisoryLock(Connection connection, String lockName) {
+        // GET_LOCK 超时单位为秒
+        long timeoutSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs));
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            statement.setString(1, lockName);
+            statement.setLong(2, timeoutSeconds);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next() || resultSet.getInt(1) != 1) {
+                    throw new IllegalStateException("保存繁忙，请稍后重试: " + lockName);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("获取数据库锁失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 事务结束后释放锁：先释放数据库命名锁，再释放进程内的锁
+     */
+    private class Release implements TransactionSynchronization {
+
+        private final ReentrantLock lock;
+        private final Connection connection;
+        private final String lockName;
+
+        Release(ReentrantLock lock, Connection connection, String lockName) {
+            this.lock = lock;
+            this.connection = connection;
+            this.lockName = lockName;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            try {
+                if (connection != null) {
+                    try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                        statement.setString(1, lockName);
+                        statement.executeQuery().close();
+                    } catch (SQLException e) {
+                        // 连接关闭时 MySQL 也会释放命名锁
+                        System.err.println("释放数据库锁失败: " + lockName + " - " + e.getMessage());
+                    }
+                }
+            } finally {
+                held.decrementAndGet();
+                lock.unlock();
+            }
+        }
+    }
+}
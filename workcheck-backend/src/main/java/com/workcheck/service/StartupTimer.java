@@ -0,0 +1,58 @@
+package com.workcheck.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 启动耗时：从 JVM 启动到应用就绪（可以处理请求）
+ * 超过 workcheck.startup.budget-ms 时打印警告，每个版本用 benchmark.sh startup 对比。
+ */
+@Service
+public class StartupTimer {
+
+    @Value("${workcheck.startup.budget-ms:20000}")
+    private long budgetMs = 20000;
+
+    @Value("${spring.main.lazy-initialization:false}")
+    private boolean lazyInitialization = false;
+
+    private volatile long readyMs = -1;
+    private volatile long jvmStartMs = -1;
+    private volatile boolean classDataSharing = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        jvmStartMs = runtime.getStartTime();
+        readyMs = System.currentTimeMillis() - jvmStartMs;
+        classDataSharing = runtime.getInputArguments().stream()
+                .anyMatch(argument -> argument.startsWith("-XX:SharedArchiveFile"));
+
+        if (readyMs > budgetMs) {
+            System.err.println("启动耗时 " + readyMs + "ms，超过预算 " + budgetMs + "ms");
+        } else {
+            System.out.println("启动耗时 " + readyMs + "ms（预算 " + budgetMs + "ms）");
+        }
+    }
+
+    /**
+     * 启动耗时信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("readyMs", readyMs);
+        stats.put("budgetMs", budgetMs);
+        stats.put("withinBudget", readyMs >= 0 && readyMs <= budgetMs);
+        stats.put("jvmStartTime", jvmStartMs);
+        stats.put("lazyInitialization", lazyInitialization);
+        stats.put("classDataSharing", classDataSharing);
+        return stats;
+    }
+}
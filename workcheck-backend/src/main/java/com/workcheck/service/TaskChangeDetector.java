@@ -0,0 +1,127 @@
+package com.workcheck.service;
+
+import com.workcheck.dto.CheckDTO;
+import com.workcheck.dto.FileDTO;
+import com.workcheck.dto.TaskChangeDTO;
+import com.workcheck.dto.TaskDTO;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 比较保存前后的任务列表，按任务编号找出新增、修改和删除的任务
+ * 修改的任务只携带有变化的部分：文件列表有变化时带上文件列表，检查项只带状态变化的项
+ */
+public final class TaskChangeDetector {
+
+    private TaskChangeDetector() {}
+
+    public static List<TaskChangeDTO> diff(List<TaskDTO> before, List<TaskDTO> after) {
+        Map<String, TaskDTO> previous = new LinkedHashMap<>();
+        for (TaskDTO task : before) {
+            previous.put(task.getTaskId(), task);
+        }
+
+        List<TaskChangeDTO> changes = new ArrayList<>();
+        for (TaskDTO task : after) {
+            TaskDTO old = previous.remove(task.getTaskId());
+            if (old == null) {
+                changes.add(new TaskChangeDTO(TaskChangeDTO.CREATED, task.getTaskId(), task));
+            } else if (!sameContent(old, task)) {
+                changes.add(new TaskChangeDTO(TaskChangeDTO.UPDATED, task.getTaskId(), changedParts(old, task)));
+            }
+        }
+
+        for (String taskId : previous.keySet()) {
+            changes.add(new TaskChangeDTO(TaskChangeDTO.DELETED, taskId, null));
+        }
+        return changes;
+    }
+
+    /**
+     * 任务内容是否相同（不比较数据库ID，保存会重新生成ID）
+     */
+    public static boolean sameContent(TaskDTO a, TaskDTO b) {
+        return Objects.equals(a.getChange(), b.getChange())
+                && Objects.equals(a.getRisk(), b.getRisk())
+                && sameFiles(a.getFiles(), b.getFiles())
+                && sameChecks(a.getChecks(), b.getChecks());
+    }
+
+    private static TaskDTO changedParts(TaskDTO old, TaskDTO task) {
+        TaskDTO partial = new TaskDTO();
+        partial.setId(task.getId());
+        partial.setTaskId(task.getTaskId());
+        partial.setChange(task.getChange());
+        partial.setRisk(task.getRisk());
+        partial.setUserName(task.getUserName());
+        partial.setMonth(task.getMonth());
+        partial.setVersion(task.getVersion());
+
+        if (!sameFiles(old.getFiles(), task.getFiles())) {
+            partial.setFiles(task.getFiles());
+        }
+
+        if (!sameChecks(old.getChecks(), task.getChecks())) {
+            partial.setChecks(changedChecks(old.getChecks(), task.getChecks()));
+        }
+        return partial;
+    }
+
+    /**
+     * 检查项条目不变时只返回状态变化的项，否则返回完整列表
+     */
+    private static List<CheckDTO> changedChecks(List<CheckDTO> old, List<CheckDTO> checks) {
+        if (old == null || checks == null || old.size() != checks.size()) {
+            return checks;
+        }
+        List<CheckDTO> changed = new ArrayList<>();
+        for (int i = 0; i < checks.size(); i++) {
+            CheckDTO a = old.get(i);
+            CheckDTO b = checks.get(i);
+            if (!Objects.equals(a.getCheckItem(), b.getCheckItem()) || !Objects.equals(a.getSortOrder(), b.getSortOrder())) {
+                return checks;
+            }
+            if (!Objects.equals(a.getStatus(), b.getStatus())) {
+                changed.add(b);
+            }
+        }
+        return changed;
+    }
+
+    private static boolean sameFiles(List<FileDTO> a, List<FileDTO> b) {
+        if (a == null || b == null) {
+            return a == b || (a == null ? b.isEmpty() : a.isEmpty());
+        }
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!Objects.equals(a.get(i).getFile(), b.get(i).getFile())
+                    || !Objects.equals(a.get(i).getTest(), b.get(i).getTest())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameChecks(List<CheckDTO> a, List<CheckDTO> b) {
+        if (a == null || b == null) {
+            return a == b || (a == null ? b.isEmpty() : a.isEmpty());
+        }
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!Objects.equals(a.get(i).getCheckItem(), b.get(i).getCheckItem())
+                    || !Objects.equals(a.get(i).getStatus(), b.get(i).getStatus())
+                    || !Objects.equals(a.get(i).getSortOrder(), b.get(i).getSortOrder())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,162 @@
+package com.workcheck.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workcheck.dto.TaskChangeDTO;
+import com.workcheck.dto.TaskChangeLogDTO;
+import com.workcheck.dto.TaskDTO;
+import com.workcheck.entity.TaskChangeLog;
+import com.workcheck.repository.TaskChangeLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 任务变更日志
+ * 保存任务时在同一事务中批量追加新增、修改、删除的任务（修改后的完整任务），
+ * 可据此查看谁改了什么、把某用户月份回放到任意时间点或版本，增量消费者按日志ID顺序读取即可。
+ */
+@Service
+public class TaskChangeLogService {
+
+    public static final String SNAPSHOT = "snapshot";
+
+    private static final String INSERT_SQL = "INSERT INTO task_change_log "
+            + "(user_name, month, version, task_id, change_type, operator, client_id, payload, changed_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Value("${workcheck.history.enabled:true}")
+    private boolean enabled = true;
+
+    @Autowired
+    private TaskChangeLogRepository taskChangeLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 追加一次保存的变更，须在保存事务中调用
+     * 该用户月份第一次记录日志时，先把保存前已存在的任务记为 snapshot，回放才有起点
+     * @param previousTasks 保存前的任务
+     * @param changes 本次保存的变更
+     * @param tasks 保存后的任务
+     */
+    public void append(String userName, String month, long version, String operator, String clientId,
+                       List<TaskDTO> previousTasks, List<TaskChangeDTO> changes, List<TaskDTO> tasks) {
+        if (!enabled || changes.isEmpty()) {
+            return;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>();
+
+        if (!previousTasks.isEmpty() && !taskChangeLogRepository.existsByUserNameAndMonth(userName, month)) {
+            for (TaskDTO task : previousTasks) {
+                long taskVersion = task.getVersion() != null ? task.getVersion() : 0L;
+                rows.add(new Object[]{userName, month, taskVersion, task.getTaskId(), SNAPSHOT,
+                        null, null, toJson(task), now});
+            }
+        }
+
+        Map<String, TaskDTO> tasksById = tasks.stream()
+                .collect(Collectors.toMap(TaskDTO::getTaskId, Function.identity(), (a, b) -> a));
+        for (TaskChangeDTO change : changes) {
+            TaskDTO task = TaskChangeDTO.DELETED.equals(change.getType()) ? null : tasksById.get(change.getTaskId());
+            rows.add(new Object[]{userName, month, version, change.getTaskId(), change.getType(),
+                    operator, clientId, task != null ? toJson(task) : null, now});
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * 最近的变更记录，可按任务编号过滤
+     */
+    public List<TaskChangeLogDTO> findRecent(String userName, String month, String taskId, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        List<TaskChangeLog> logs = taskId != null && !taskId.isEmpty()
+                ? taskChangeLogRepository.findRecentByTask(userName, month, taskId, page)
+                : taskChangeLogRepository.findRecent(userName, month, page);
+        return logs.stream().map(this::toDTO).collect(Collectors.toList());
+    }
+
+    /**
+     * 按日志ID顺序读取指定ID之后的变更，供增量消费
+     */
+    public List<TaskChangeLogDTO> findAfter(long after, int limit) {
+        return taskChangeLogRepository.findAfter(after, PageRequest.of(0, limit)).stream()
+                .map(this::toDTO).collect(Collectors.toList());
+    }
+
+    /**
+     * 回放到指定时间点的任务列表
+     */
+    public List<TaskDTO> replayAt(String userName, String month, Date at) {
+        return replay(taskChangeLogRepository.findUntil(userName, month, at));
+    }
+
+    /**
+     * 回放到指定版本的任务列表
+     */
+    public List<TaskDTO> replayVersion(String userName, String month, long version) {
+        return replay(taskChangeLogRepository.findUntilVersion(userName, month, version));
+    }
+
+    private List<TaskDTO> replay(List<TaskChangeLog> logs) {
+        Map<String, TaskChangeLog> latest = new LinkedHashMap<>();
+        for (TaskChangeLog log : logs) {
+            latest.put(log.getTaskId(), log);
+        }
+        List<TaskDTO> tasks = new ArrayList<>();
+        for (TaskChangeLog log : latest.values()) {
+            if (!TaskChangeDTO.DELETED.equals(log.getChangeType()) && log.getPayload() != null) {
+                tasks.add(fromJson(log.getPayload()));
+            }
+        }
+        return tasks;
+    }
+
+    private TaskChangeLogDTO toDTO(TaskChangeLog log) {
+        TaskChangeLogDTO dto = new TaskChangeLogDTO();
+        dto.setId(log.getId());
+        dto.setUserName(log.getUserName());
+        dto.setMonth(log.getMonth());
+        dto.setVersion(log.getVersion());
+        dto.setTaskId(log.getTaskId());
+        dto.setType(log.getChangeType());
+        dto.setOperator(log.getOperator());
+        dto.setClientId(log.getClientId());
+        dto.setChangedAt(log.getChangedAt());
+        dto.setTask(log.getPayload() != null ? fromJson(log.getPayload()) : null);
+        return dto;
+    }
+
+    private String toJson(TaskDTO task) {
+        try {
+            return objectMapper.writeValueAsString(task);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("序列化任务失败: " + task.getTaskId(), e);
+        }
+    }
+
+    private TaskDTO fromJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, TaskDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("解析变更日志失败", e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.workcheck.service;
+
+import com.workcheck.event.SaveFailedEvent;
+import com.workcheck.event.TasksChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 按（用户, 月份）推送任务变更
+ * 保存事务提交后，把变化的任务通过 Server-Sent Events 发给正在查看同一用户月份的页面，
+ * 页面据此增量更新，不需要重新加载整个月的任务。
+ */
+@Service
+public class TaskEventBroadcaster {
+
+    @Value("${workcheck.tasks.events.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs = 1800000;
+
+    private final Map<String, List<SseEmitter>> channels = new ConcurrentHashMap<>();
+
+    /**
+     * 订阅某用户某月份的任务变更
+     */
+    public SseEmitter subscribe(String userName, String month) throws IOException {
+        String channel = channelKey(userName, month);
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        channels.compute(channel, (k, emitters) -> {
+            List<SseEmitter> list = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            return list;
+        });
+
+        emitter.onCompletion(() -> removeEmitter(channel, emitter));
+        emitter.onTimeout(() -> removeEmitter(channel, emitter));
+        emitter.onError(e -> removeEmitter(channel, emitter));
+
+        Map<String, Object> ready = new HashMap<>();
+        ready.put("userName", userName);
+        ready.put("month", month);
+        emitter.send(SseEmitter.event().name("ready").data(ready));
+        return emitter;
+    }
+
+    /**
+     * 当前订阅连接数
+     */
+    public int getSubscriberCount() {
+        return channels.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * 保存事务提交后推送，回滚的保存不会被推送
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTasksChanged(TasksChangedEvent event) {
+        String channel = channelKey(event.getUserName(), event.getMonth());
+        List<SseEmitter> emitters = channels.get(channel);
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("userName", event.getUserName());
+        data.put("month", event.getMonth());
+        data.put("clientId", event.getClientId());
+        data.put("version", event.getVersion());
+        data.put("changes", event.getChanges());
+
+        send(channel, "changes", data);
+    }
+
+    /**
+     * 写后保存最终失败（已移入死信）时推送，已收到 queued 响应的页面据此提示用户重新保存
+     */
+    @EventListener
+    public void onSaveFailed(SaveFailedEvent event) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("userName", event.getUserName());
+        data.put("month", event.getMonth());
+        data.put("clientId", event.getClientId());
+        data.put("seq", event.getSeq());
+        data.put("error", event.getError());
+        send(channelKey(event.getUserName(), event.getMonth()), "save-failed", data);
+    }
+
+    /**
+     * 定期发送心跳注释，及时清理已断开的连接
+     */
+    @Scheduled(fixedDelayString = "${workcheck.tasks.events.heartbeat-ms:30000}")
+    public void heartbeat() {
+        channels.forEach((channel, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                } catch (IOException | IllegalStateException e) {
+                    removeEmitter(channel, emitter);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        channels.clear();
+    }
+
+    private void send(String channel, String name, Map<String, Object> data) {
+        List<SseEmitter> emitters = channels.get(channel);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data));
+            } catch (IOException | IllegalStateException e) {
+                removeEmitter(channel, emitter);
+            }
+        }
+    }
+
+    private void removeEmitter(String channel, SseEmitter emitter) {
+        channels.computeIfPresent(channel, (k, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private static String channelKey(String userName, String month) {
+        return userName + "|" + month;
+    }
+}
@@ -0,0 +1,380 @@
+package com.workcheck.service;
+
+import com.workcheck.dto.FileDTO;
+import com.workcheck.dto.TaskDTO;
+import com.workcheck.dto.TaskSearchHitDTO;
+import com.workcheck.event.TasksChangedEvent;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.analysis.core.LowerCaseFilterFactory;
+import org.apache.lucene.analysis.custom.CustomAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.pattern.PatternTokenizerFactory;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 任务全文检索
+ * 使用内嵌的 Lucene 索引覆盖所有用户和月份的任务变更内容、任务编号和文件路径。
+ * 每次保存提交后按（用户, 月份）重建该月的文档，索引为空时在启动后从数据库全量重建。
+ * 索引写入在单独的线程中执行，不阻塞保存请求。
+ */
+@Service
+public class TaskSearchService {
+
+    private static final String SCOPE = "scope";
+    private static final String USER_NAME = "userName";
+    private static final String MONTH = "month";
+    private static final String TASK_ID = "taskId";
+    private static final String CHANGE = "change";
+    private static final String FILES = "files";
+    private static final String RISK = "risk";
+
+    private static final int MAX_LIMIT = 200;
+
+    /**
+     * 文件路径按目录分隔符、标点以及驼峰、字母数字边界切分，如 LoginService2.java -> login service 2 java
+     */
+    private static final String PATH_SPLIT = "[^\\p{L}\\p{N}]+|(?<=\\p{Ll})(?=\\p{Lu})|(?<=\\p{L})(?=\\p{N})|(?<=\\p{N})(?=\\p{L})";
+
+    @Value("${workcheck.search.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${workcheck.search.index-dir:data/search-index}")
+    private String indexDir = "data/search-index";
+
+    @Autowired
+    private WorkCheckService workCheckService;
+
+    private Analyzer analyzer;
+
+    private Directory directory;
+
+    private IndexWriter writer;
+
+    private SearcherManager searcherManager;
+
+    private final ExecutorService indexExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "task-search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 检索结果
+     */
+    public static class SearchResult {
+        private final long total;
+        private final List<TaskSearchHitDTO> hits;
+
+        public SearchResult(long total, List<TaskSearchHitDTO> hits) {
+            this.total = total;
+            this.hits = hits;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public List<TaskSearchHitDTO> getHits() {
+            return hits;
+        }
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            analyzer = createAnalyzer();
+            Path path = Paths.get(indexDir);
+            Files.createDirectories(path);
+            directory = FSDirectory.open(path);
+            IndexWriterConfig config = new IndexWriterConfig(analyzer);
+            config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+            writer = new IndexWriter(directory, config);
+            searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            System.err.println("打开全文索引失败，检索不可用: " + e.getMessage());
+            closeQuietly();
+        }
+    }
+
+    public boolean isAvailable() {
+        return searcherManager != null;
+    }
+
+    /**
+     * 索引为空时从数据库全量重建（首次启用或索引目录被删除）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (isAvailable() && writer.getDocStats().numDocs == 0) {
+            indexExecutor.submit(this::rebuildNow);
+        }
+    }
+
+    /**
+     * 保存事务提交后重建该用户月份的文档
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTasksChanged(TasksChangedEvent event) {
+        if (isAvailable()) {
+            indexExecutor.submit(() -> reindexMonth(event.getUserName(), event.getMonth()));
+        }
+    }
+
+    /**
+     * 后台全量重建索引
+     */
+    public void rebuild() {
+        if (!isAvailable()) {
+            throw new IllegalStateException("全文检索不可用");
+        }
+        indexExecutor.submit(this::rebuildNow);
+    }
+
+    /**
+     * 检索任务
+     * @param text 查询语句，支持 Lucene 查询语法，如 "登录 AND files:LoginService"
+     * @param userName 限定用户（可选）
+     * @param month 限定月份（可选）
+     * @param limit 最多返回的条数
+     * @return 按相关度排序的任务
+     */
+    public SearchResult search(String text, String userName, String month, int limit) throws IOException {
+        if (!isAvailable()) {
+            throw new IllegalStateException("全文检索不可用");
+        }
+        if (text == null || text.trim().isEmpty()) {
+            throw new IllegalArgumentException("查询内容不能为空");
+        }
+        limit = limit > 0 ? Math.min(limit, MAX_LIMIT) : 20;
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        query.add(parse(text.trim()), BooleanClause.Occur.MUST);
+        if (userName != null && !userName.isEmpty()) {
+            query.add(new TermQuery(new Term(USER_NAME, userName)), BooleanClause.Occur.FILTER);
+        }
+        if (month != null && !month.isEmpty()) {
+            query.add(new TermQuery(new Term(MONTH, month)), BooleanClause.Occur.FILTER);
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs top = searcher.search(query.build(), limit);
+            List<TaskSearchHitDTO> hits = new ArrayList<>();
+            for (ScoreDoc scoreDoc : top.scoreDocs) {
+                hits.add(toHit(searcher.doc(scoreDoc.doc), scoreDoc.score));
+            }
+            return new SearchResult(top.totalHits.value, hits);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * 已索引的任务数
+     */
+    public int getIndexedCount() {
+        return isAvailable() ? writer.getDocStats().numDocs : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        indexExecutor.shutdown();
+        indexExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        closeQuietly();
+    }
+
+    private void reindexMonth(String userName, String month) {
+        try {
+            List<TaskDTO> tasks = workCheckService.loadTasks(userName, month);
+            writer.deleteDocuments(new Term(SCOPE, scope(userName, month)));
+            for (TaskDTO task : tasks) {
+                writer.addDocument(toDocument(userName, month, task));
+            }
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (Exception e) {
+            System.err.println("更新全文索引失败: " + userName + " " + month + ", " + e.getMessage());
+        }
+    }
+
+    private void rebuildNow() {
+        try {
+            long start = System.currentTimeMillis();
+            writer.deleteAll();
+            for (String[] userMonth : workCheckService.getAllUserMonths()) {
+                for (TaskDTO task : workCheckService.loadTasks(userMonth[0], userMonth[1])) {
+                    writer.addDocument(toDocument(userMonth[0], userMonth[1], task));
+                }
+            }
+            writer.commit();
+            searcherManager.maybeRefresh();
+            System.out.println("全文索引重建完成，共 " + writer.getDocStats().numDocs + " 个任务，耗时 "
+                    + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            System.err.println("重建全文索引失败: " + e.getMessage());
+        }
+    }
+
+    private Query parse(String text) {
+        Map<String, Float> fieldBoosts = new HashMap<>();
+        fieldBoosts.put(TASK_ID, 3f);
+        fieldBoosts.put(FILES, 1.5f);
+        fieldBoosts.put(CHANGE, 1f);
+        String[] searchFields = {CHANGE, FILES, TASK_ID};
+
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(searchFields, analyzer) {
+            @Override
+            protected Query getFieldQuery(String field, String queryText, boolean quoted) throws ParseException {
+                if (field != null) {
+                    return super.getFieldQuery(field, queryText, quoted);
+                }
+                // 一个词被切成多个词元时（如 LoginService7），要求在同一字段内全部匹配，再在字段之间取并集
+                BooleanQuery.Builder builder = new BooleanQuery.Builder();
+                boolean matched = false;
+                for (String f : searchFields) {
+                    Query q = super.getFieldQuery(f, queryText, quoted);
+                    if (q != null) {
+                        builder.add(new BoostQuery(q, fieldBoosts.get(f)), BooleanClause.Occur.SHOULD);
+                        matched = true;
+                    }
+                }
+                return matched ? builder.build() : null;
+            }
+        };
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        // 按空白拆分查询词，每个词只需在任一字段中匹配
+        parser.setSplitOnWhitespace(true);
+        try {
+            return parser.parse(text);
+        } catch (ParseException e) {
+            // 不是合法的查询语法时按普通文本检索
+            try {
+                return parser.parse(QueryParser.escape(text));
+            } catch (ParseException ex) {
+                throw new IllegalArgumentException("无法解析查询内容: " + text);
+            }
+        }
+    }
+
+    private static Document toDocument(String userName, String month, TaskDTO task) {
+        Document doc = new Document();
+        doc.add(new StringField(SCOPE, scope(userName, month), Field.Store.NO));
+        doc.add(new StringField(USER_NAME, userName, Field.Store.YES));
+        doc.add(new StringField(MONTH, month, Field.Store.YES));
+        doc.add(new TextField(TASK_ID, task.getTaskId(), Field.Store.YES));
+        if (task.getChange() != null) {
+            doc.add(new TextField(CHANGE, task.getChange(), Field.Store.YES));
+        }
+        if (task.getRisk() != null) {
+            doc.add(new StoredField(RISK, task.getRisk()));
+        }
+        if (task.getFiles() != null) {
+            for (FileDTO file : task.getFiles()) {
+                if (file.getFile() != null && !file.getFile().isEmpty()) {
+                    doc.add(new TextField(FILES, file.getFile(), Field.Store.YES));
+                }
+            }
+        }
+        return doc;
+    }
+
+    private static TaskSearchHitDTO toHit(Document doc, float score) {
+        TaskSearchHitDTO hit = new TaskSearchHitDTO();
+        hit.setUserName(doc.get(USER_NAME));
+        hit.setMonth(doc.get(MONTH));
+        hit.setTaskId(doc.get(TASK_ID));
+        hit.setChange(doc.get(CHANGE));
+        hit.setRisk(doc.get(RISK));
+        String[] files = doc.getValues(FILES);
+        hit.setFiles(files.length > 0 ? Arrays.stream(files).collect(Collectors.toList()) : Collections.emptyList());
+        hit.setScore(score);
+        return hit;
+    }
+
+    /**
+     * 变更内容使用 CJK 二元分词，任务编号和文件路径按路径规则分词
+     */
+    private static Analyzer createAnalyzer() throws IOException {
+        Analyzer pathAnalyzer = CustomAnalyzer.builder()
+                .withTokenizer(PatternTokenizerFactory.class, "pattern", PATH_SPLIT)
+                .addTokenFilter(LowerCaseFilterFactory.class)
+                .build();
+        Map<String, Analyzer> fieldAnalyzers = new HashMap<>();
+        fieldAnalyzers.put(FILES, pathAnalyzer);
+        fieldAnalyzers.put(TASK_ID, pathAnalyzer);
+        return new PerFieldAnalyzerWrapper(new CJKAnalyzer(), fieldAnalyzers);
+    }
+
+    private static String scope(String userName, String month) {
+        return userName + "|" + month;
+    }
+
+    private void closeQuietly() {
+        try {
+            if (searcherManager != null) {
+                searcherManager.close();
+            }
+            if (writer != null) {
+                writer.close();
+            }
+            if (directory != null) {
+                directory.close();
+            }
+        } catch (IOException e) {
+            System.err.println("关闭全文索引失败: " + e.getMessage());
+        } finally {
+            searcherManager = null;
+            writer = null;
+            directory = null;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.workcheck.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.workcheck.dto.TraceSummaryDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求跟踪的采样、保存和导出
+ * 按 workcheck.trace.sample-rate 采样请求（请求头 traceparent 标记为已采样时总是跟踪），
+ * 完成的跟踪保存在内存环形缓冲区中（/api/traces 查看），并以 OpenTelemetry 的 OTLP JSON 格式
+ * 每行一个跟踪追加到本地文件，文件写入在单独的线程中执行，队列满时丢弃。
+ */
+@Service
+public class TraceService {
+
+    private static final int EXPORT_QUEUE_SIZE = 1000;
+
+    @Value("${workcheck.trace.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${workcheck.trace.sample-rate:0.05}")
+    private double sampleRate = 0.05;
+
+    @Value("${workcheck.trace.max-spans:500}")
+    private int maxSpans = 500;
+
+    @Value("${workcheck.trace.buffer-size:200}")
+    private int bufferSize = 200;
+
+    @Value("${workcheck.trace.file:data/traces/otlp-traces.jsonl}")
+    private String file = "";
+
+    @Value("${workcheck.trace.max-file-bytes:52428800}")
+    private long maxFileBytes = 52428800L;
+
+    @Value("${spring.application.name:workcheck-backend}")
+    private String serviceName = "workcheck-backend";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Deque<Tracing.Trace> buffer = new ArrayDeque<>();
+
+    private final AtomicLong exportDropped = new AtomicLong();
+
+    private final ThreadPoolExecutor exportExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(EXPORT_QUEUE_SIZE), r -> {
+        Thread thread = new Thread(r, "trace-exporter");
+        thread.setDaemon(true);
+        return thread;
+    }, (r, executor) -> exportDropped.incrementAndGet());
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * 是否跟踪该请求
+     * @param forced 调用方要求跟踪（traceparent 的采样标记）
+     */
+    public boolean shouldSample(boolean forced) {
+        if (!enabled) {
+            return false;
+        }
+        return forced || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * 在当前线程开始跟踪
+     */
+    public TraceSpan begin(String traceId, String parentSpanId, String rootName) {
+        return Tracing.begin(traceId, parentSpanId, rootName, maxSpans);
+    }
+
+    /**
+     * 结束当前线程的跟踪，保存到缓冲区并导出到文件
+     */
+    public void finish() {
+        Tracing.Trace trace = Tracing.end();
+        if (trace == null) {
+            return;
+        }
+        synchronized (buffer) {
+            buffer.addFirst(trace);
+            while (buffer.size() > bufferSize) {
+                buffer.removeLast();
+            }
+        }
+        if (file != null && !file.isEmpty()) {
+            exportExecutor.execute(() -> export(trace));
+        }
+    }
+
+    /**
+     * 最近的跟踪，新的在前
+     * @param minDurationMs 只返回耗时不少于该值的跟踪
+     */
+    public List<TraceSummaryDTO> listTraces(double minDurationMs, int limit) {
+        List<TraceSummaryDTO> summaries = new ArrayList<>();
+        synchronized (buffer) {
+            for (Iterator<Tracing.Trace> it = buffer.iterator(); it.hasNext() && summaries.size() < limit; ) {
+                TraceSummaryDTO summary = toSummary(it.next());
+                if (summary != null && summary.getDurationMs() >= minDurationMs) {
+                    summaries.add(summary);
+                }
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * 缓冲区中指定跟踪的 OTLP resourceSpans
+     * @return 不在缓冲区中时返回 null
+     */
+    public ArrayNode findTrace(String traceId) {
+        synchronized (buffer) {
+            for (Tracing.Trace trace : buffer) {
+                if (trace.getTraceId().equals(traceId)) {
+                    return toResourceSpans(trace);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 因导出队列已满而未写入文件的跟踪数
+     */
+    public long getExportDropped() {
+        return exportDropped.get();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        exportExecutor.shutdown();
+        exportExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private TraceSummaryDTO toSummary(Tracing.Trace trace) {
+        TraceSpan root = trace.getRootSpan();
+        if (root == null) {
+            return null;
+        }
+        TraceSummaryDTO summary = new TraceSummaryDTO();
+        summary.setTraceId(trace.getTraceId());
+        summary.setName(root.getName());
+        summary.setStartTime(new Date(trace.toEpochNanos(root.getStartNanos()) / 1000000L));
+        summary.setDurationMs((root.getEndNanos() - root.getStartNanos()) / 1000000.0);
+        summary.setSpanCount(trace.getSpans().size());
+        summary.setDroppedSpans(trace.getDroppedSpans());
+        Object status = root.getAttributes().get("http.status_code");
+        summary.setStatusCode(status instanceof Number ? ((Number) status).intValue() : null);
+        summary.setError(root.isError());
+        return summary;
+    }
+
+    /**
+     * 转换为 OTLP JSON：resourceSpans[].scopeSpans[].spans[]
+     */
+    private ArrayNode toResourceSpans(Tracing.Trace trace) {
+        ArrayNode resourceSpans = objectMapper.createArrayNode();
+        ObjectNode resourceSpan = resourceSpans.addObject();
+        ArrayNode resourceAttributes = resourceSpan.putObject("resource").putArray("attributes");
+        addAttribute(resourceAttributes, "service.name", serviceName);
+
+        ObjectNode scopeSpan = resourceSpan.putArray("scopeSpans").addObject();
+        scopeSpan.putObject("scope").put("name", "com.workcheck");
+        ArrayNode spans = scopeSpan.putArray("spans");
+        for (TraceSpan span : trace.getSpans()) {
+            ObjectNode node = spans.addObject();
+            node.put("traceId", trace.getTraceId());
+            node.put("spanId", span.getSpanId());
+            if (span.getParentSpanId() != null) {
+                node.put("parentSpanId", span.getParentSpanId());
+            }
+            node.put("name", span.getName());
+            node.put("kind", span.getKind());
+            // OTLP JSON 中 64 位整数以字符串表示
+            node.put("startTimeUnixNano", String.valueOf(trace.toEpochNanos(span.getStartNanos())));
+            node.put("endTimeUnixNano", String.valueOf(trace.toEpochNanos(span.getEndNanos())));
+            ArrayNode attributes = node.putArray("attributes");
+            for (Map.Entry<String, Object> attribute : span.getAttributes().entrySet()) {
+                addAttribute(attributes, attribute.getKey(), attribute.getValue());
+            }
+            if (span == trace.getRootSpan() && trace.getDroppedSpans() > 0) {
+                addAttribute(attributes, "workcheck.dropped_spans", trace.getDroppedSpans());
+            }
+            if (span.isError()) {
+                ObjectNode status = node.putObject("status");
+                status.put("code", 2);
+                if (span.getErrorMessage() != null) {
+                    status.put("message", span.getErrorMessage());
+                }
+            }
+        }
+        return resourceSpans;
+    }
+
+    private static void addAttribute(ArrayNode attributes, String key, Object value) {
+        ObjectNode attribute = attributes.addObject();
+        attribute.put("key", key);
+        ObjectNode any = attribute.putObject("value");
+        if (value instanceof Boolean) {
+            any.put("boolValue", (Boolean) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            any.put("doubleValue", ((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            any.put("intValue", String.valueOf(((Number) value).longValue()));
+        } else {
+            any.put("stringValue", String.valueOf(value));
+        }
+    }
+
+    private void export(Tracing.Trace trace) {
+        try {
+            Path path = Paths.get(file);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            // 超过大小上限时保留一个旧文件 .1
+            if (Files.exists(path) && Files.size(path) > maxFileBytes) {
+                Files.move(path, Paths.get(file + ".1"), StandardCopyOption.REPLACE_EXISTING);
+            }
+            ObjectNode line = objectMapper.createObjectNode();
+            line.set("resourceSpans", toResourceSpans(trace));
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(objectMapper.writeValueAsString(line));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            System.err.println("写入跟踪文件失败: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.workcheck.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 请求跟踪中的一个跨度（一次数据库访问、一个 git 进程等），字段与 OpenTelemetry Span 对应
+ * 请求未被采样时使用 {@link #NOOP}，所有操作都不记录。
+ */
+public class TraceSpan implements AutoCloseable {
+
+    public static final int KIND_INTERNAL = 1;
+    public static final int KIND_SERVER = 2;
+    public static final int KIND_CLIENT = 3;
+
+    public static final TraceSpan NOOP = new TraceSpan(null, null, null, null, KIND_INTERNAL, 0);
+
+    private final Tracing.Trace trace;
+    private final String spanId;
+    private final String parentSpanId;
+    private String name;
+    private final int kind;
+    private final long startNanos;
+    private long endNanos = -1;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private String errorMessage;
+    private boolean error;
+
+    TraceSpan(Tracing.Trace trace, String spanId, String parentSpanId, String name, int kind, long startNanos) {
+        this.trace = trace;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.startNanos = startNanos;
+    }
+
+    public TraceSpan setAttribute(String key, Object value) {
+        if (trace != null && value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * 数值属性累加（如读取字节数、SQL语句数）
+     */
+    public void addToAttribute(String key, long delta) {
+        if (trace != null) {
+            attributes.merge(key, delta, (a, b) -> ((Number) a).longValue() + ((Number) b).longValue());
+        }
+    }
+
+    /**
+     * 修改跨度名称（如请求处理完成后改为匹配的路由）
+     */
+    public void updateName(String name) {
+        if (trace != null) {
+            this.name = name;
+        }
+    }
+
+    public void setError(String message) {
+        if (trace != null) {
+            error = true;
+            errorMessage = message;
+        }
+    }
+
+    /**
+     * 统计从输入流读取的字节数，记录到属性 key
+     */
+    public InputStream countBytes(InputStream in, String key) {
+        if (trace == null) {
+            return in;
+        }
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    addToAttribute(key, 1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n > 0) {
+                    addToAttribute(key, n);
+                }
+                return n;
+            }
+        };
+    }
+
+    /**
+     * 结束跨度，重复调用只记录第一次
+     */
+    public void end() {
+        if (trace != null && endNanos < 0) {
+            endNanos = System.nanoTime();
+            trace.endSpan(this);
+        }
+    }
+
+    @Override
+    public void close() {
+        end();
+    }
+
+    public boolean isRecording() {
+        return trace != null;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getKind() {
+        return kind;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getEndNanos() {
+        return endNanos;
+    }
+
+    void forceEnd(long nanos, String reason) {
+        if (endNanos < 0) {
+            endNanos = nanos;
+            setAttribute("workcheck.unfinished", reason);
+        }
+    }
+
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
@@ -0,0 +1,251 @@
+package com.workcheck.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 当前线程的请求跟踪
+ * 采样的请求在处理线程上绑定一个 {@link Trace}，数据库访问、git 进程等通过静态方法记录跨度；
+ * 未采样或非请求线程（定时任务、后台索引）上调用时返回 {@link TraceSpan#NOOP}，只多一次 ThreadLocal 读取。
+ * 使用静态方法是因为 Hibernate 的 StatementInspector、ProcessBuilder 调用处都拿不到 Spring Bean。
+ */
+public final class Tracing {
+
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    private Tracing() {
+    }
+
+    /**
+     * 一个请求的全部跨度
+     */
+    public static class Trace {
+        private final String traceId;
+        private final long startEpochNanos;
+        private final long startNanos;
+        private final int maxSpans;
+        private final List<TraceSpan> spans = new ArrayList<>();
+        private final Deque<TraceSpan> open = new ArrayDeque<>();
+        private int droppedSpans;
+
+        Trace(String traceId, int maxSpans) {
+            this.traceId = traceId;
+            this.startEpochNanos = System.currentTimeMillis() * 1000000L;
+            this.startNanos = System.nanoTime();
+            this.maxSpans = maxSpans;
+        }
+
+        TraceSpan startSpan(String name, int kind, String parentSpanId) {
+            if (spans.size() >= maxSpans) {
+                droppedSpans++;
+                return TraceSpan.NOOP;
+            }
+            String parent = parentSpanId != null ? parentSpanId : (open.isEmpty() ? null : open.peek().getSpanId());
+            TraceSpan span = new TraceSpan(this, randomHex(8), parent, name, kind, System.nanoTime());
+            spans.add(span);
+            open.push(span);
+            return span;
+        }
+
+        void endSpan(TraceSpan span) {
+            // 正常情况下结束的是最内层的跨度，异常路径上可能跳过几层
+            open.remove(span);
+        }
+
+        /**
+         * 结束请求：仍未结束的跨度（如抛出异常后没有等待的 git 进程）以当前时间结束
+         */
+        void finish() {
+            long now = System.nanoTime();
+            for (TraceSpan span : spans) {
+                span.forceEnd(now, "trace finished");
+            }
+            open.clear();
+        }
+
+        public String getTraceId() {
+            return traceId;
+        }
+
+        /**
+         * 跨度开始时间（System.nanoTime）换算为 Unix 纳秒
+         */
+        public long toEpochNanos(long nanos) {
+            return startEpochNanos + (nanos - startNanos);
+        }
+
+        public List<TraceSpan> getSpans() {
+            return Collections.unmodifiableList(spans);
+        }
+
+        public TraceSpan getRootSpan() {
+            return spans.isEmpty() ? null : spans.get(0);
+        }
+
+        public int getDroppedSpans() {
+            return droppedSpans;
+        }
+    }
+
+    /**
+     * 在当前线程开始跟踪，并创建根跨度
+     * @param traceId 为 null 时生成新的跟踪ID
+     * @param parentSpanId 上游调用方的跨度ID（traceparent），可为 null
+     */
+    static TraceSpan begin(String traceId, String parentSpanId, String rootName, int maxSpans) {
+        Trace trace = new Trace(traceId != null ? traceId : randomHex(16), maxSpans);
+        CURRENT.set(trace);
+        return trace.startSpan(rootName, TraceSpan.KIND_SERVER, parentSpanId);
+    }
+
+    /**
+     * 结束当前线程的跟踪
+     * @return 未在跟踪时返回 null
+     */
+    static Trace end() {
+        Trace trace = CURRENT.get();
+        if (trace == null) {
+            return null;
+        }
+        CURRENT.remove();
+        trace.finish();
+        return trace;
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * 当前跟踪的ID，未在跟踪时返回 null
+     */
+    public static String currentTraceId() {
+        Trace trace = CURRENT.get();
+        return trace != null ? trace.getTraceId() : null;
+    }
+
+    /**
+     * 在当前跨度下开始一个子跨度，用完后调用 end()（或 try-with-resources）
+     */
+    public static TraceSpan startSpan(String name, int kind) {
+        Trace trace = CURRENT.get();
+        return trace != null ? trace.startSpan(name, kind, null) : TraceSpan.NOOP;
+    }
+
+    /**
+     * 当前最内层的跨度
+     */
+    public static TraceSpan currentSpan() {
+        Trace trace = CURRENT.get();
+        if (trace == null || trace.open.isEmpty()) {
+            return TraceSpan.NOOP;
+        }
+        return trace.open.peek();
+    }
+
+    /**
+     * 记录一条SQL语句（由 Hibernate 在执行前调用），计入当前跨度，
+     * 因此 DTO 转换中触发的延迟加载会计入转换所在的跨度，而不是之前的查询
+     */
+    public static void recordStatement() {
+        currentSpan().addToAttribute("db.statement_count", 1);
+    }
+
+    /**
+     * 启动外部进程；请求被采样时记录为一个跨度：命令行、耗时、从标准输出读取的字节数、退出码，
+     * 跨度在 waitFor() 或 destroy() 时结束
+     */
+    public static Process startProcess(ProcessBuilder pb) throws IOException {
+        if (!isActive()) {
+            return pb.start();
+        }
+        List<String> command = pb.command();
+        String name = command.size() > 1 ? command.get(0) + " " + command.get(1) : command.get(0);
+        TraceSpan span = startSpan(name, TraceSpan.KIND_CLIENT);
+        span.setAttribute("process.command_line", String.join(" ", command));
+        if (pb.directory() != null) {
+            span.setAttribute("process.working_directory", pb.directory().getPath());
+        }
+        try {
+            return new TracedProcess(pb.start(), span);
+        } catch (IOException e) {
+            span.setError(e.getMessage());
+            span.end();
+            throw e;
+        }
+    }
+
+    static String randomHex(int bytes) {
+        StringBuilder sb = new StringBuilder(bytes * 2);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < bytes; i++) {
+            int b = random.nextInt(256);
+            sb.append(Character.forDigit(b >> 4, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 记录耗时、读取字节数和退出码的进程
+     */
+    private static class TracedProcess extends Process {
+        private final Process process;
+        private final TraceSpan span;
+        private final InputStream inputStream;
+
+        TracedProcess(Process process, TraceSpan span) {
+            this.process = process;
+            this.span = span;
+            this.inputStream = span.countBytes(process.getInputStream(), "process.bytes_read");
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return process.getOutputStream();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return inputStream;
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return process.getErrorStream();
+        }
+
+        @Override
+        public int waitFor() throws InterruptedException {
+            // 非0退出码不标记为错误：show-ref、symbolic-ref 等探测命令以退出码返回结果
+            int exitCode = process.waitFor();
+            span.setAttribute("process.exit_code", exitCode);
+            span.end();
+            return exitCode;
+        }
+
+        @Override
+        public int exitValue() {
+            return process.exitValue();
+        }
+
+        @Override
+        public void destroy() {
+            // 读满一页后提前结束进程，不算失败
+            span.setAttribute("process.destroyed", true);
+            span.end();
+            process.destroy();
+        }
+
+        @Override
+        public boolean isAlive() {
+            return process.isAlive();
+        }
+    }
+}
@@ -3,20 +3,35 @@ package com.workcheck.service;
 import com.workcheck.dto.TaskDTO;
 import com.workcheck.dto.FileDTO;
 import com.workcheck.dto.CheckDTO;
+import com.workcheck.dto.CheckStatsDTO;
+import com.workcheck.dto.TaskChangeDTO;
+import com.workcheck.dto.TaskDeltaDTO;
 import com.workcheck.entity.*;
+import com.workcheck.event.CheckTemplateChangedEvent;
+import com.workcheck.event.TasksChangedEvent;
 import com.workcheck.repository.CheckTemplateRepository;
 import com.workcheck.repository.TaskRepository;
-import javax.transaction.Transactional;
+import com.workcheck.repository.TaskDeltaFloorRepository;
+import com.workcheck.repository.TaskTombstoneRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import java.util.Set;
 import java.util.HashSet;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,20 +41,140 @@ public class WorkCheckService {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    private TaskDeltaFloorRepository taskDeltaFloorRepository;
+
     @Autowired
     private CheckTemplateRepository checkTemplateRepository;
 
+    @Autowired
+    private FilePathService filePathService;
+
+    @Autowired
+    private CheckItemCatalog checkItemCatalog;
+
+    @Autowired
+    private MonthArchiveService monthArchiveService;
+
+    @Autowired
+    private TaskChangeLogService taskChangeLogService;
+
+    @Autowired
+    private SaveLockService saveLockService;
+
+    @Autowired
+    private ReadReplicaRouting readReplicaRouting;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // 检查项存储方式：rows 每个检查项一行；bitmask 与默认模板一致的检查项保存为任务上的位图，其余仍按行保存
+    @Value("${workcheck.checks.storage:rows}")
+    private String checkStorage = "rows";
+
     @PersistenceContext
     private EntityManager entityManager;
 
-    // 加载任务
+    // 加载任务，热表中没有任务时从归档快照读取
+    @Transactional(readOnly = true)
     public List<TaskDTO> loadTasks(String userName, String month) {
+        readReplicaRouting.routeRead(ReadReplicaRouting.key(userName, month));
         List<Task> tasks = taskRepository.findTasks(userName, month);
-        return tasks.stream().map(this::convertToDTO).collect(Collectors.toList());
+        if (tasks.isEmpty()) {
+            Optional<ArchivedMonth> archive = monthArchiveService.find(userName, month);
+            if (archive.isPresent()) {
+                return monthArchiveService.readTasks(archive.get());
+            }
+        }
+        return convertToDTOs(tasks);
+    }
+
+    // 当前版本号：任务、墓碑和增量加载下限中最大的版本号，已归档的月份为归档时的版本号
+    @Transactional(readOnly = true)
+    public long getCurrentVersion(String userName, String month) {
+        readReplicaRouting.routeRead(ReadReplicaRouting.key(userName, month));
+        long version = Math.max(taskRepository.findMaxVersion(userName, month),
+                taskTombstoneRepository.findMaxVersion(userName, month));
+        version = Math.max(version, taskDeltaFloorRepository.findFloorVersion(userName, month));
+        if (version == 0) {
+            version = monthArchiveService.find(userName, month).map(ArchivedMonth::getVersion).orElse(0L);
+        }
+        return version;
+    }
+
+    // 数据指纹：任务数、最后更新时间、最大版本号和墓碑版本号，任一变化都意味着加载结果可能变化
+    @Transactional(readOnly = true)
+    public String getTasksFingerprint(String userName, String month) {
+        readReplicaRouting.routeRead(ReadReplicaRouting.key(userName, month));
+        List<Object[]> rows = taskRepository.findFingerprint(userName, month);
+        Object[] row = rows.isEmpty() ? new Object[3] : rows.get(0);
+        if (row[0] == null || ((Number) row[0]).longValue() == 0) {
+            Optional<ArchivedMonth> archive = monthArchiveService.find(userName, month);
+            if (archive.isPresent()) {
+                return "archived|" + archive.get().getId() + "|" + archive.get().getVersion();
+            }
+        }
+        Date updatedAt = (Date) row[1];
+        return row[0] + "|" + (updatedAt != null ? updatedAt.getTime() : 0) + "|" + row[2]
+                + "|" + taskTombstoneRepository.findMaxVersion(userName, month);
+    }
+
+    // 增量加载：返回指定版本之后新增、修改和删除的任务
+    // since 为空、无效、晚于当前版本（如数据被重建）或早于增量加载下限（月份从归档恢复，之前的墓碑已不在）时返回完整列表
+    @Transactional(readOnly = true)
+    public TaskDeltaDTO loadTaskDelta(String userName, String month, Long since) {
+        readReplicaRouting.routeRead(ReadReplicaRouting.key(userName, month));
+        long version = getCurrentVersion(userName, month);
+        if (since == null || since < 0 || since > version
+                || since < taskDeltaFloorRepository.findFloorVersion(userName, month)) {
+            return new TaskDeltaDTO(version, true, loadTasks(userName, month), Collections.emptyList());
+        }
+        if (since == version) {
+            return new TaskDeltaDTO(version, false, Collections.emptyList(), Collections.emptyList());
+        }
+        // 归档时不保留墓碑，已归档的月份只能返回完整列表
+        if (taskRepository.countByUserNameAndMonth(userName, month) == 0
+                && monthArchiveService.find(userName, month).isPresent()) {
+            return new TaskDeltaDTO(version, true, loadTasks(userName, month), Collections.emptyList());
+        }
+
+        List<TaskDTO> tasks = convertToDTOs(taskRepository.findTasksSince(userName, month, since));
+        List<String> deleted = taskTombstoneRepository.findDeletedTaskIdsSince(userName, month, since);
+        return new TaskDeltaDTO(version, false, tasks, deleted);
     }
 
     // 保存任务
     public List<TaskDTO> saveTasks(String userName, String month, List<TaskDTO> taskDTOs) {
+        return saveTasks(userName, month, taskDTOs, null);
+    }
+
+    // 保存任务，clientId 标识发起保存的页面，推送变更时页面据此忽略自己的保存
+    public List<TaskDTO> saveTasks(String userName, String month, List<TaskDTO> taskDTOs, String clientId) {
+        return saveTasks(userName, month, taskDTOs, clientId, null);
+    }
+
+    // 保存任务，operator 为操作人，记入变更日志
+    public List<TaskDTO> saveTasks(String userName, String month, List<TaskDTO> taskDTOs, String clientId, String operator) {
+        // 同一用户月份的保存依次执行，须在读取任何数据之前加锁
+        saveLockService.lock(userName, month);
+        readReplicaRouting.recordWrite(ReadReplicaRouting.key(userName, month));
+
+        // 记录保存前的任务，用于计算变更
+        List<TaskDTO> previousTasks = loadTasks(userName, month);
+        Map<String, TaskDTO> previousById = previousTasks.stream()
+                .collect(Collectors.toMap(TaskDTO::getTaskId, t -> t, (a, b) -> a));
+        long nextVersion = getCurrentVersion(userName, month) + 1;
+
+        // 已归档的月份重新写入热表；归档时墓碑已删除，早于归档版本的增量加载无法得知期间删除的任务
+        Optional<ArchivedMonth> archive = monthArchiveService.find(userName, month);
+        if (archive.isPresent()) {
+            raiseDeltaFloor(userName, month, archive.get().getVersion());
+            monthArchiveService.delete(archive.get());
+        }
+
         // 先删除原有任务（使用显式的批量删除查询，这样可以看到DELETE SQL）
         int deletedCount = taskRepository.deleteByUserNameAndMonth(userName, month);
         System.out.println("删除了 " + deletedCount + " 条任务记录");
@@ -54,6 +189,13 @@ public class WorkCheckService {
         List<Task> existingTasks = taskRepository.findTasks(userName, month);
         System.out.println("删除后剩余任务数: " + existingTasks.size());
 
+        // 文件路径关联路径字典，按文件反查任务时使用
+        Map<String, Long> pathIds = filePathService.resolveIds(taskDTOs.stream()
+                .filter(dto -> dto.getFiles() != null)
+                .flatMap(dto -> dto.getFiles().stream())
+                .map(FileDTO::getFile)
+                .collect(Collectors.toList()));
+
         // 确保任务ID唯一
         Set<String> usedTaskIds = new HashSet<>();
         List<Task> savedTasks = new ArrayList<>();
@@ -63,6 +205,9 @@ public class WorkCheckService {
             Task task = convertToEntity(dto);
             task.setUserName(userName);
             task.setMonth(month);
+            if (task.getFiles() != null) {
+                task.getFiles().forEach(file -> file.setPathId(pathIds.get(FilePathService.normalize(file.getFile()))));
+            }
 
             // 如果任务ID重复，生成新的ID
             if (usedTaskIds.contains(task.getTaskId())) {
@@ -76,21 +221,173 @@ public class WorkCheckService {
                 task.setTaskId(newTaskId);
             }
 
+            // 内容未变化的任务保留原版本号，增量加载时不会再返回
+            TaskDTO previous = previousById.get(task.getTaskId());
+            boolean unchanged = previous != null && previous.getVersion() != null
+                    && TaskChangeDetector.sameContent(previous, dto);
+            task.setVersion(unchanged ? previous.getVersion() : nextVersion);
+
             usedTaskIds.add(task.getTaskId());
             savedTasks.add(taskRepository.save(task));
         }
 
-        return savedTasks.stream().map(this::convertToDTO).collect(Collectors.toList());
+        // 更新墓碑：本次删除的任务记录删除版本，重新出现的任务移除墓碑
+        Set<String> deletedTaskIds = new HashSet<>(previousById.keySet());
+        deletedTaskIds.removeAll(usedTaskIds);
+        Set<String> touchedTaskIds = new HashSet<>(usedTaskIds);
+        touchedTaskIds.addAll(deletedTaskIds);
+        if (!touchedTaskIds.isEmpty()) {
+            taskTombstoneRepository.deleteByTaskIds(userName, month, touchedTaskIds);
+        }
+        for (String taskId : deletedTaskIds) {
+            TaskTombstone tombstone = new TaskTombstone();
+            tombstone.setUserName(userName);
+            tombstone.setMonth(month);
+            tombstone.setTaskId(taskId);
+            tombstone.setVersion(nextVersion);
+            taskTombstoneRepository.save(tombstone);
+        }
+
+        List<TaskDTO> result = convertToDTOs(savedTasks);
+
+        // 事务提交后推送给订阅该用户月份的页面
+        List<TaskChangeDTO> changes = TaskChangeDetector.diff(previousTasks, result);
+        if (!changes.isEmpty()) {
+            // 变更日志与任务在同一事务中写入
+            taskChangeLogService.append(userName, month, nextVersion, operator, clientId, previousTasks, changes, result);
+            eventPublisher.publishEvent(new TasksChangedEvent(userName, month, clientId, nextVersion, changes));
+        }
+
+        return result;
+    }
+
+    // 检查项完成情况：位图保存的任务用 bitCount 计数，按行保存的任务按任务分组计数，不加载任务明细
+    @Transactional(readOnly = true)
+    public CheckStatsDTO getCheckStats(String userName, String month) {
+        readReplicaRouting.routeRead(ReadReplicaRouting.key(userName, month));
+        CheckStatsDTO stats = new CheckStatsDTO();
+        long tasks = taskRepository.countByUserNameAndMonth(userName, month);
+        if (tasks == 0) {
+            Optional<ArchivedMonth> archive = monthArchiveService.find(userName, month);
+            if (archive.isPresent()) {
+                return countChecks(monthArchiveService.readTasks(archive.get()));
+            }
+        }
+        long tasksWithChecks = 0;
+
+        for (Object[] row : taskRepository.findCheckMasks(userName, month)) {
+            CheckLayout layout = row[1] != null ? checkItemCatalog.getLayout((Integer) row[1]) : null;
+            if (layout == null) {
+                continue;
+            }
+            long mask = (Long) row[0];
+            int done = layout.countDone(mask);
+            stats.setChecks(stats.getChecks() + layout.size());
+            stats.setCompletedChecks(stats.getCompletedChecks() + done);
+            if (done == layout.size()) {
+                stats.setCompletedTasks(stats.getCompletedTasks() + 1);
+            }
+            tasksWithChecks++;
+        }
+
+        for (Object[] row : taskRepository.countChecksByTask(userName, month)) {
+            long total = ((Number) row[0]).longValue();
+            long done = row[1] != null ? ((Number) row[1]).longValue() : 0;
+            stats.setChecks(stats.getChecks() + total);
+            stats.setCompletedChecks(stats.getCompletedChecks() + done);
+            if (done == total) {
+                stats.setCompletedTasks(stats.getCompletedTasks() + 1);
+            }
+            tasksWithChecks++;
+        }
+
+        stats.setTasks(tasks);
+        stats.setCompletedTasks(stats.getCompletedTasks() + Math.max(0, tasks - tasksWithChecks));
+        return stats;
+    }
+
+    // 由任务列表统计检查项完成情况（已归档的月份）
+    private CheckStatsDTO countChecks(List<TaskDTO> tasks) {
+        CheckStatsDTO stats = new CheckStatsDTO();
+        stats.setTasks(tasks.size());
+        for (TaskDTO task : tasks) {
+            List<CheckDTO> checks = task.getChecks() != null ? task.getChecks() : Collections.emptyList();
+            long done = checks.stream().filter(check -> TaskCheck.STATUS_DONE.equals(check.getStatus())).count();
+            stats.setChecks(stats.getChecks() + checks.size());
+            stats.setCompletedChecks(stats.getCompletedChecks() + done);
+            if (done == checks.size()) {
+                stats.setCompletedTasks(stats.getCompletedTasks() + 1);
+            }
+        }
+        return stats;
+    }
+
+    // 归档月份：任务列表压缩保存为一条归档快照，并从热表删除该月份的任务和墓碑
+    // 墓碑不随归档保存，月份恢复时记录增量加载下限，早于归档版本的客户端重新加载完整列表
+    public boolean archiveMonth(String userName, String month) {
+        saveLockService.lock(userName, month);
+        readReplicaRouting.recordWrite(ReadReplicaRouting.key(userName, month));
+        List<Task> tasks = taskRepository.findTasks(userName, month);
+        if (tasks.isEmpty()) {
+            return false;
+        }
+        long version = getCurrentVersion(userName, month);
+        List<TaskDTO> dtos = convertToDTOs(tasks);
+        Set<Long> pathIds = tasks.stream()
+                .filter(task -> task.getFiles() != null)
+                .flatMap(task -> task.getFiles().stream())
+                .map(TaskFile::getPathId)
+                .filter(pathId -> pathId != null && pathId > 0)
+                .collect(Collectors.toSet());
+
+        monthArchiveService.store(userName, month, version, dtos, pathIds);
+        taskRepository.deleteByUserNameAndMonth(userName, month);
+        taskTombstoneRepository.deleteByUserNameAndMonth(userName, month);
+        entityManager.flush();
+        entityManager.clear();
+        return true;
+    }
+
+    // 取消归档：把归档快照中的任务写回热表，内容不变的任务保留原版本号
+    public boolean unarchiveMonth(String userName, String month) {
+        saveLockService.lock(userName, month);
+        if (taskRepository.countByUserNameAndMonth(userName, month) > 0) {
+            return false;
+        }
+        Optional<ArchivedMonth> archive = monthArchiveService.find(userName, month);
+        if (!archive.isPresent()) {
+            return false;
+        }
+        saveTasks(userName, month, monthArchiveService.readTasks(archive.get()));
+        return true;
+    }
+
+    // 提高月份的增量加载下限
+    private void raiseDeltaFloor(String userName, String month, long version) {
+        TaskDeltaFloor floor = taskDeltaFloorRepository.findByUserNameAndMonth(userName, month).orElseGet(() -> {
+            TaskDeltaFloor created = new TaskDeltaFloor();
+            created.setUserName(userName);
+            created.setMonth(month);
+            created.setVersion(0L);
+            return created;
+        });
+        if (version > floor.getVersion()) {
+            floor.setVersion(version);
+            taskDeltaFloorRepository.save(floor);
+        }
     }
 
     // 获取检查项模板
+    @Transactional(readOnly = true)
     public List<String> getCheckTemplate() {
+        readReplicaRouting.routeRead(ReadReplicaRouting.TEMPLATE_KEY);
         // 尝试获取默认模板
         Optional<CheckTemplate> defaultTemplate = checkTemplateRepository.findDefaultTemplate();
 
         if (defaultTemplate.isPresent()) {
             CheckTemplate template = defaultTemplate.get();
             return template.getItems().stream()
+                    .filter(CheckTemplateItem::isActive)
                     .sorted((a, b) -> a.getSortOrder().compareTo(b.getSortOrder()))
                     .map(CheckTemplateItem::getItemText)
                     .collect(Collectors.toList());
@@ -110,6 +407,72 @@ public class WorkCheckService {
         return defaultChecks;
     }
 
+    // 默认模板的版本，没有默认模板时返回null
+    @Transactional(readOnly = true)
+    public Integer getCheckTemplateVersion() {
+        readReplicaRouting.routeRead(ReadReplicaRouting.TEMPLATE_KEY);
+        return checkTemplateRepository.findDefaultTemplate().map(CheckTemplate::getVersion).orElse(null);
+    }
+
+    // 调整默认模板的检查项：文本和位置都不变的检查项保留ID，去掉的检查项停用（保留文本供历史任务解析），新增的检查项新建
+    // 检查项的 sortOrder 不修改：历史版本的布局按其中检查项的 sortOrder 排列，位置变化的检查项停用后在新位置新建
+    public int updateCheckTemplate(List<String> checkItems) {
+        if (checkItems == null || checkItems.isEmpty()) {
+            throw new IllegalArgumentException("检查项不能为空");
+        }
+        List<String> texts = checkItems.stream()
+                .map(text -> text == null ? "" : text.trim())
+                .collect(Collectors.toList());
+        if (texts.contains("")) {
+            throw new IllegalArgumentException("检查项内容不能为空");
+        }
+        if (new LinkedHashSet<>(texts).size() != texts.size()) {
+            throw new IllegalArgumentException("检查项不能重复");
+        }
+        if (texts.stream().anyMatch(text -> text.length() > 200)) {
+            throw new IllegalArgumentException("检查项内容不能超过200个字符");
+        }
+
+        initializeDefaultCheckTemplate();
+        CheckTemplate template = checkTemplateRepository.findDefaultTemplate()
+                .orElseThrow(() -> new IllegalStateException("默认模板不存在"));
+        List<CheckTemplateItem> active = template.getItems().stream()
+                .filter(CheckTemplateItem::isActive)
+                .sorted(Comparator.comparing(CheckTemplateItem::getSortOrder))
+                .collect(Collectors.toList());
+        if (active.stream().map(CheckTemplateItem::getItemText).collect(Collectors.toList()).equals(texts)) {
+            return template.getVersion();
+        }
+
+        int nextVersion = (template.getVersion() != null ? template.getVersion() : 1) + 1;
+        Map<String, CheckTemplateItem> activeByText = active.stream()
+                .collect(Collectors.toMap(CheckTemplateItem::getItemText, item -> item, (a, b) -> a));
+        for (int i = 0; i < texts.size(); i++) {
+            CheckTemplateItem item = activeByText.remove(texts.get(i));
+            if (item != null && (item.getSortOrder() == null || item.getSortOrder() != i)) {
+                item.setRetiredVersion(nextVersion);
+                item = null;
+            }
+            if (item == null) {
+                item = new CheckTemplateItem();
+                item.setItemText(texts.get(i));
+                item.setSinceVersion(nextVersion);
+                item.setTemplate(template);
+                item.setSortOrder(i);
+                template.getItems().add(item);
+            }
+        }
+        for (CheckTemplateItem removed : activeByText.values()) {
+            removed.setRetiredVersion(nextVersion);
+        }
+        template.setVersion(nextVersion);
+        checkTemplateRepository.save(template);
+        readReplicaRouting.recordWrite(ReadReplicaRouting.TEMPLATE_KEY);
+
+        eventPublisher.publishEvent(new CheckTemplateChangedEvent(template.getId(), nextVersion));
+        return nextVersion;
+    }
+
     // 初始化默认检查项模板
     public void initializeDefaultCheckTemplate() {
         // 检查是否已存在默认模板
@@ -141,22 +504,68 @@ public class WorkCheckService {
             CheckTemplateItem item = new CheckTemplateItem();
             item.setItemText(defaultItems[i]);
             item.setSortOrder(i);
+            item.setSinceVersion(1);
             item.setTemplate(defaultTemplate);
             items.add(item);
         }
 
         defaultTemplate.setItems(items);
         checkTemplateRepository.save(defaultTemplate);
+        readReplicaRouting.recordWrite(ReadReplicaRouting.TEMPLATE_KEY);
+        eventPublisher.publishEvent(new CheckTemplateChangedEvent(defaultTemplate.getId(), 1));
     }
 
-    // 获取所有用户列表
+    // 获取所有用户列表（包括只有归档月份的用户）
+    @Transactional(readOnly = true)
     public List<String> getAllUsers() {
-        return taskRepository.findDistinctUserNames();
+        Set<String> users = new LinkedHashSet<>(taskRepository.findDistinctUserNames());
+        monthArchiveService.getUserMonths().forEach(userMonth -> users.add(userMonth[0]));
+        return new ArrayList<>(users);
     }
 
-    // 获取所有月份列表
+    // 获取所有月份列表（包括已归档的月份）
+    @Transactional(readOnly = true)
     public List<String> getAllMonths() {
-        return taskRepository.findDistinctMonths();
+        Set<String> months = new TreeSet<>(Comparator.reverseOrder());
+        months.addAll(taskRepository.findDistinctMonths());
+        monthArchiveService.getUserMonths().forEach(userMonth -> months.add(userMonth[1]));
+        return new ArrayList<>(months);
+    }
+
+    // 获取所有有任务的（用户, 月份）组合，包括已归档的月份
+    @Transactional(readOnly = true)
+    public List<String[]> getAllUserMonths() {
+        List<String[]> userMonths = getHotUserMonths();
+        userMonths.addAll(monthArchiveService.getUserMonths());
+        return userMonths;
+    }
+
+    // 获取热表中有任务的（用户, 月份）组合
+    @Transactional(readOnly = true)
+    public List<String[]> getHotUserMonths() {
+        return taskRepository.findDistinctUserMonths().stream()
+                .map(row -> new String[]{(String) row[0], (String) row[1]})
+                .collect(Collectors.toList());
+    }
+
+    // 获取指定用户月份下登记的所有文件路径
+    @Transactional(readOnly = true)
+    public List<String> getTaskFilePaths(String userName, String month) {
+        readReplicaRouting.routeRead(ReadReplicaRouting.key(userName, month));
+        List<String> paths = taskRepository.findDistinctFilePaths(userName, month);
+        if (paths.isEmpty()) {
+            Optional<ArchivedMonth> archive = monthArchiveService.find(userName, month);
+            if (archive.isPresent()) {
+                return monthArchiveService.readTasks(archive.get()).stream()
+                        .filter(task -> task.getFiles() != null)
+                        .flatMap(task -> task.getFiles().stream())
+                        .map(FileDTO::getFile)
+                        .filter(file -> file != null)
+                        .distinct()
+                        .collect(Collectors.toList());
+            }
+        }
+        return paths;
     }
 
     // 转换DTO到实体
@@ -181,13 +590,24 @@ public class WorkCheckService {
         }
 
         // 处理检查项列表
-        if (dto.getChecks() != null) {
+        if ("bitmask".equals(checkStorage) && applyCheckMask(task, dto.getChecks())) {
+            task.setChecks(new ArrayList<>());
+        } else if (dto.getChecks() != null) {
             List<TaskCheck> checks = dto.getChecks().stream().map(checkDTO -> {
                 TaskCheck check = new TaskCheck();
                 check.setId(checkDTO.getId());
-                check.setCheckItem(checkDTO.getCheckItem());
-                check.setStatus(checkDTO.getStatus());
                 check.setSortOrder(checkDTO.getSortOrder());
+                // 默认模板中的检查项只保存检查项ID和完成标记
+                Long itemId = checkItemCatalog.findItemId(checkDTO.getCheckItem());
+                boolean standardStatus = TaskCheck.STATUS_DONE.equals(checkDTO.getStatus())
+                        || TaskCheck.STATUS_TODO.equals(checkDTO.getStatus());
+                if (itemId != null && standardStatus) {
+                    check.setTemplateItemId(itemId);
+                    check.setDone(TaskCheck.STATUS_DONE.equals(checkDTO.getStatus()));
+                } else {
+                    check.setCheckItem(checkDTO.getCheckItem());
+                    check.setStatus(checkDTO.getStatus());
+                }
                 check.setTask(task);
                 return check;
             }).collect(Collectors.toList());
@@ -197,6 +617,28 @@ public class WorkCheckService {
         return task;
     }
 
+    // 检查项与默认模板某个版本完全一致时保存为位图，优先匹配当前版本
+    private boolean applyCheckMask(Task task, List<CheckDTO> checks) {
+        for (int version = checkItemCatalog.getDefaultTemplateVersion(); version >= 1; version--) {
+            CheckLayout layout = checkItemCatalog.getLayout(version);
+            Long mask = layout != null ? layout.encode(checks) : null;
+            if (mask != null) {
+                task.setCheckMask(mask);
+                task.setCheckTemplateVersion(version);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 转换实体列表到DTO，跟踪时记录为一个跨度（文件、检查项集合的延迟加载在这里执行）
+    private List<TaskDTO> convertToDTOs(List<Task> tasks) {
+        try (TraceSpan span = Tracing.startSpan("WorkCheckService.convertToDTO", TraceSpan.KIND_INTERNAL)) {
+            span.setAttribute("task.count", tasks.size());
+            return tasks.stream().map(this::convertToDTO).collect(Collectors.toList());
+        }
+    }
+
     // 转换实体到DTO
     private TaskDTO convertToDTO(Task task) {
         TaskDTO dto = new TaskDTO();
@@ -206,6 +648,7 @@ public class WorkCheckService {
         dto.setRisk(task.getRisk());
         dto.setUserName(task.getUserName());
         dto.setMonth(task.getMonth());
+        dto.setVersion(task.getVersion());
 
         // 处理文件列表
         if (task.getFiles() != null) {
@@ -220,14 +663,28 @@ public class WorkCheckService {
         }
 
         // 处理检查项列表
-        if (task.getChecks() != null) {
+        if (task.getCheckMask() != null) {
+            CheckLayout layout = task.getCheckTemplateVersion() != null
+                    ? checkItemCatalog.getLayout(task.getCheckTemplateVersion()) : null;
+            if (layout != null) {
+                dto.setChecks(layout.decode(task.getCheckMask()));
+            } else {
+                System.err.println("任务 " + task.getTaskId() + " 的检查项模板版本不存在: " + task.getCheckTemplateVersion());
+                dto.setChecks(new ArrayList<>());
+            }
+        } else if (task.getChecks() != null) {
             List<CheckDTO> checkDTOs = task.getChecks().stream()
                     .sorted((a, b) -> a.getSortOrder().compareTo(b.getSortOrder()))
                     .map(check -> {
                         CheckDTO checkDTO = new CheckDTO();
                         checkDTO.setId(check.getId());
-                        checkDTO.setCheckItem(check.getCheckItem());
-                        checkDTO.setStatus(check.getStatus());
+                        String itemText = checkItemCatalog.getText(check.getTemplateItemId());
+                        checkDTO.setCheckItem(itemText != null ? itemText : check.getCheckItem());
+                        if (check.getDone() != null) {
+                            checkDTO.setStatus(check.getDone() ? TaskCheck.STATUS_DONE : TaskCheck.STATUS_TODO);
+                        } else {
+                            checkDTO.setStatus(check.getStatus());
+                        }
                         checkDTO.setSortOrder(check.getSortOrder());
                         return checkDTO;
                     }).collect(Collectors.toList());
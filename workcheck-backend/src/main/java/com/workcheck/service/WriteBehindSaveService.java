@@ -0,0 +1,469 @@
+package com.workcheck.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.workcheck.dto.TaskDTO;
+import com.workcheck.event.SaveFailedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 写后保存（write-behind）
+ * 开启后 /api/save 只把请求追加到本地日志文件并放入内存队列即返回，
+ * 同一（用户, 月份）的多次保存合并为最新的一次，由后台定期分批写入数据库。
+ * 日志在启动时回放，未写入数据库的保存不会因重启丢失；已写入的保存在日志中追加写入标记，回放时跳过。
+ * 连续失败 max-attempts 次的保存移入死信文件（save-dead-letter.log），在 /api/save-queue 中列出，
+ * 并通过任务变更订阅推送 save-failed 事件。
+ */
+@Service
+public class WriteBehindSaveService {
+
+    private static final String JOURNAL_FILE = "save-journal.log";
+    private static final String DEAD_LETTER_FILE = "save-dead-letter.log";
+
+    // 日志中的标记行：该（用户, 月份）序号不大于 seq 的保存已写入数据库 / 已移入死信
+    private static final String MARK_FLUSHED = "flushed";
+    private static final String MARK_DEAD = "dead";
+
+    // /api/save-queue 中列出的最近死信数，完整内容在死信文件中
+    private static final int MAX_DEAD_LETTERS_SHOWN = 100;
+
+    @Value("${workcheck.save.write-behind.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${workcheck.save.write-behind.journal-dir:data/save-journal}")
+    private String journalDir = "data/save-journal";
+
+    @Value("${workcheck.save.write-behind.batch-size:50}")
+    private int batchSize = 50;
+
+    @Value("${workcheck.save.write-behind.fsync:true}")
+    private boolean fsync = true;
+
+    @Value("${workcheck.save.write-behind.compact-bytes:16777216}")
+    private long compactBytes = 16777216;
+
+    @Value("${workcheck.save.write-behind.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Autowired
+    private WorkCheckService workCheckService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * （用户, 月份） -> 尚未写入数据库的最新保存
+     */
+    private final Map<String, PendingSave> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 同一（用户, 月份）的写入串行执行，保证后接收的保存后写入
+     */
+    private final Map<String, Object> keyLocks = new ConcurrentHashMap<>();
+
+    private final Object journalLock = new Object();
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    /**
+     * 最近的死信（不含任务内容），新的在前
+     */
+    private final Deque<Map<String, Object>> deadLetters = new ArrayDeque<>();
+
+    private Path journalPath;
+    private FileChannel journal;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path dir = Paths.get(journalDir);
+        Files.createDirectories(dir);
+        journalPath = dir.resolve(JOURNAL_FILE);
+        loadDeadLetters(dir.resolve(DEAD_LETTER_FILE));
+        replayJournal();
+        journal = openJournal();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 接收一次保存：写入日志后放入队列，覆盖同一（用户, 月份）尚未写入的保存
+     * @return 保存序号
+     */
+    public long accept(String userName, String month, List<TaskDTO> tasks, String clientId, String operator) throws IOException {
+        PendingSave save = new PendingSave();
+        save.userName = userName;
+        save.month = month;
+        save.tasks = tasks;
+        save.clientId = clientId;
+        save.operator = operator;
+        save.acceptedAt = System.currentTimeMillis();
+
+        synchronized (journalLock) {
+            save.seq = sequence.incrementAndGet();
+            appendJournal(save);
+            if (pending.put(key(userName, month), save) != null) {
+                coalesced.incrementAndGet();
+            }
+        }
+        accepted.incrementAndGet();
+        return save.seq;
+    }
+
+    /**
+     * 立即写入指定（用户, 月份）尚未写入的保存，加载前调用以读到最新数据
+     */
+    public void flush(String userName, String month) {
+        if (enabled && pending.containsKey(key(userName, month))) {
+            flushKey(key(userName, month));
+        }
+    }
+
+    /**
+     * 定期分批写入，先接收的先写
+     */
+    @Scheduled(fixedDelayString = "${workcheck.save.write-behind.flush-interval-ms:1000}")
+    public void flushPending() {
+        if (!enabled || pending.isEmpty()) {
+            return;
+        }
+        List<String> keys = pending.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().seq))
+                .limit(batchSize)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        for (String key : keys) {
+            flushKey(key);
+        }
+        compactJournal();
+    }
+
+    /**
+     * 队列状态
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("pending", pending.size());
+        stats.put("accepted", accepted.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("flushed", flushed.get());
+        stats.put("failed", failed.get());
+        stats.put("maxAttempts", maxAttempts);
+        stats.put("deadLettered", deadLettered.get());
+        synchronized (deadLetters) {
+            stats.put("deadLetters", new ArrayList<>(deadLetters));
+        }
+        try {
+            stats.put("journalBytes", journalPath != null && Files.exists(journalPath) ? Files.size(journalPath) : 0L);
+        } catch (IOException e) {
+            stats.put("journalBytes", -1L);
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        // 尽量写完；失败的保存仍在日志中，下次启动回放
+        for (String key : new ArrayList<>(pending.keySet())) {
+            flushKey(key);
+        }
+        compactJournal();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("关闭保存日志失败: " + e.getMessage());
+        }
+    }
+
+    private void flushKey(String key) {
+        Object lock = keyLocks.computeIfAbsent(key, k -> new Object());
+        synchronized (lock) {
+            PendingSave save = pending.get(key);
+            if (save == null) {
+                return;
+            }
+            try {
+                workCheckService.saveTasks(save.userName, save.month, save.tasks, save.clientId, save.operator);
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                save.attempts++;
+                if (save.attempts < maxAttempts) {
+                    // 保留在队列中，下一轮重试
+                    System.err.println("写入保存失败（第 " + save.attempts + " 次）: " + save.userName + " " + save.month + " - " + e.getMessage());
+                    return;
+                }
+                System.err.println("写入保存失败 " + save.attempts + " 次，移入死信: " + save.userName + " " + save.month + " - " + e.getMessage());
+                deadLetter(key, save, String.valueOf(e.getMessage()));
+                return;
+            }
+            pending.remove(key, save);
+            flushed.incrementAndGet();
+            appendMark(save, MARK_FLUSHED);
+        }
+    }
+
+    /**
+     * 移出队列并写入死信文件，日志中标记为已处理，通知订阅的页面
+     */
+    private void deadLetter(String key, PendingSave save, String error) {
+        pending.remove(key, save);
+        deadLettered.incrementAndGet();
+
+        DeadLetterSave dead = new DeadLetterSave(save, error, System.currentTimeMillis());
+        try {
+            Files.write(journalPath.resolveSibling(DEAD_LETTER_FILE),
+                    (objectMapper.writeValueAsString(dead) + "\n").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            appendMark(save, MARK_DEAD);
+        } catch (IOException e) {
+            // 死信文件写不进时不写标记，保存仍留在日志中，下次启动回放重试
+            System.err.println("写入死信文件失败: " + e.getMessage());
+        }
+        addDeadLetter(dead);
+        eventPublisher.publishEvent(new SaveFailedEvent(save.userName, save.month, save.clientId, save.seq, error));
+    }
+
+    private void addDeadLetter(DeadLetterSave dead) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("seq", dead.seq);
+        summary.put("userName", dead.userName);
+        summary.put("month", dead.month);
+        summary.put("clientId", dead.clientId);
+        summary.put("tasks", dead.tasks != null ? dead.tasks.size() : 0);
+        summary.put("attempts", dead.failedAttempts);
+        summary.put("error", dead.error);
+        summary.put("acceptedAt", dead.acceptedAt);
+        summary.put("failedAt", dead.failedAt);
+        synchronized (deadLetters) {
+            deadLetters.addFirst(summary);
+            while (deadLetters.size() > MAX_DEAD_LETTERS_SHOWN) {
+                deadLetters.removeLast();
+            }
+        }
+    }
+
+    /**
+     * 追加标记行，回放时跳过该（用户, 月份）序号不大于 save.seq 的保存
+     */
+    private void appendMark(PendingSave save, String mark) {
+        PendingSave line = new PendingSave();
+        line.seq = save.seq;
+        line.userName = save.userName;
+        line.month = save.month;
+        line.mark = mark;
+        synchronized (journalLock) {
+            try {
+                appendJournal(line);
+            } catch (IOException e) {
+                // 标记丢失时重启后会重复写入这次保存，与没有标记时相同
+                System.err.println("写入保存日志标记失败: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 追加一行日志，调用方持有 journalLock
+     */
+    private void appendJournal(PendingSave save) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(save) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+        if (fsync) {
+            journal.force(false);
+        }
+    }
+
+    /**
+     * 队列为空时清空日志；日志过大时只保留尚未写入的保存
+     */
+    private void compactJournal() {
+        synchronized (journalLock) {
+            try {
+                if (pending.isEmpty()) {
+                    if (journal.size() > 0) {
+                        journal.truncate(0);
+                        journal.force(true);
+                    }
+                } else if (journal.size() > compactBytes) {
+                    Path temp = journalPath.resolveSibling(JOURNAL_FILE + ".tmp");
+                    List<PendingSave> saves = new ArrayList<>(pending.values());
+                    saves.sort(Comparator.comparingLong(save -> save.seq));
+                    StringBuilder content = new StringBuilder();
+                    for (PendingSave save : saves) {
+                        content.append(objectMapper.writeValueAsString(save)).append('\n');
+                    }
+                    try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                        ByteBuffer buffer = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+                        while (buffer.hasRemaining()) {
+                            out.write(buffer);
+                        }
+                        out.force(true);
+                    }
+                    journal.close();
+                    Files.move(temp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    journal = openJournal();
+                }
+            } catch (IOException e) {
+                System.err.println("整理保存日志失败: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 回放日志：每个（用户, 月份）取序号最大的保存，跳过已有写入或死信标记的保存；末尾写了一半的行（进程中断）忽略
+     */
+    private void replayJournal() throws IOException {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+        int lines = 0;
+        Map<String, Long> handled = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                PendingSave save;
+                try {
+                    save = objectMapper.readValue(line, PendingSave.class);
+                } catch (IOException e) {
+                    System.err.println("跳过无法解析的保存日志: " + e.getMessage());
+                    continue;
+                }
+                sequence.accumulateAndGet(save.seq, Math::max);
+                if (save.mark != null) {
+                    handled.merge(key(save.userName, save.month), save.seq, Math::max);
+                    continue;
+                }
+                lines++;
+                pending.merge(key(save.userName, save.month), save, (a, b) -> b.seq > a.seq ? b : a);
+            }
+        }
+        pending.entrySet().removeIf(entry -> {
+            Long done = handled.get(entry.getKey());
+            return done != null && entry.getValue().seq <= done;
+        });
+        if (lines > 0) {
+            System.out.println("回放保存日志: " + lines + " 条，待写入 " + pending.size() + " 个用户月份");
+        }
+    }
+
+    /**
+     * 启动时读取死信文件中最近的记录
+     */
+    private void loadDeadLetters(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    addDeadLetter(objectMapper.readValue(line, DeadLetterSave.class));
+                } catch (IOException e) {
+                    System.err.println("跳过无法解析的死信: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private FileChannel openJournal() throws IOException {
+        return FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static String key(String userName, String month) {
+        return userName + "|" + month;
+    }
+
+    /**
+     * 日志中的一行：一次保存，或 mark 不为空时为写入/死信标记
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static class PendingSave {
+        public long seq;
+        public String userName;
+        public String month;
+        public String clientId;
+        public String operator;
+        public long acceptedAt;
+        public List<TaskDTO> tasks;
+        public String mark;
+        // 已失败的写入次数，只在内存中
+        int attempts;
+    }
+
+    /**
+     * 死信文件中的一行，含完整任务列表，可据此人工恢复
+     */
+    static class DeadLetterSave extends PendingSave {
+        public int failedAttempts;
+        public String error;
+        public long failedAt;
+
+        DeadLetterSave() {
+        }
+
+        DeadLetterSave(PendingSave save, String error, long failedAt) {
+            this.seq = save.seq;
+            this.userName = save.userName;
+            this.month = save.month;
+            this.clientId = save.clientId;
+            this.operator = save.operator;
+            this.acceptedAt = save.acceptedAt;
+            this.tasks = save.tasks;
+            this.failedAttempts = save.attempts;
+            this.error = error;
+            this.failedAt = failedAt;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+-- ========================================
+-- WorkCheck 内嵌数据库（H2）初始化数据
+-- 与 database/workcheck.sql 中的默认模板一致；不指定ID插入，避免自增序列与已有ID冲突，可重复执行
+-- ========================================
+
+-- 插入默认检查项模板
+INSERT INTO check_templates (name, description, is_default, version)
+SELECT '默认检查项模板', '系统默认的代码变更检查项', TRUE, 1 FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM check_templates WHERE is_default = TRUE);
+
+-- 插入默认检查项明细
+INSERT INTO check_template_items (template_id, item_text, sort_order, since_version)
+SELECT t.id, i.item_text, i.sort_order, 1
+FROM check_templates t
+CROSS JOIN (VALUES
+    ('代码合并是否完成', 0),
+    ('冲突是否确认', 1),
+    ('核心逻辑单测覆盖', 2),
+    ('高风险点复盘', 3),
+    ('日志级别合理', 4),
+    ('异常兜底处理', 5),
+    ('paas参数核对', 6),
+    ('cmc参数核对', 7),
+    ('性能测试完成', 8)
+) AS i(item_text, sort_order)
+WHERE t.is_default = TRUE
+  AND NOT EXISTS (SELECT 1 FROM check_template_items WHERE template_id = t.id);
@@ -0,0 +1,214 @@
+-- ========================================
+-- WorkCheck 内嵌数据库（H2，MySQL兼容模式）表结构
+-- 与 database/workcheck.sql 保持一致，修改表结构时两处同时修改；差异：
+--   1. H2 的索引名在整个库内唯一，同名索引加表名区分（idx_template_created_at、idx_tombstone_user_month_version）
+--   2. H2 不支持前缀索引，idx_path_prefix 对整列建索引
+--   3. 索引改为单独的 CREATE INDEX 语句；不创建存储过程 CleanOldData
+--   4. 视图中 BIT_COUNT 改为 H2 的 BITCOUNT
+-- 由 application-embedded.yml 在启动时执行，可重复执行
+-- ========================================
+
+-- ========================================
+-- 1. 检查项模板表
+-- ========================================
+CREATE TABLE IF NOT EXISTS check_templates (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL COMMENT '模板名称',
+    description VARCHAR(500) COMMENT '模板描述',
+    is_default BOOLEAN DEFAULT FALSE COMMENT '是否默认模板',
+    version INT NOT NULL DEFAULT 1 COMMENT '模板版本(检查项增删或调整顺序时递增)',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) COMMENT='检查项模板表';
+CREATE INDEX IF NOT EXISTS idx_is_default ON check_templates (is_default);
+CREATE INDEX IF NOT EXISTS idx_template_created_at ON check_templates (created_at);
+
+-- ========================================
+-- 2. 检查项模板明细表
+-- ========================================
+CREATE TABLE IF NOT EXISTS check_template_items (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    template_id BIGINT NOT NULL COMMENT '模板ID',
+    item_text VARCHAR(200) NOT NULL COMMENT '检查项内容',
+    sort_order INT NOT NULL DEFAULT 0 COMMENT '排序顺序',
+    since_version INT NOT NULL DEFAULT 1 COMMENT '加入模板的版本',
+    retired_version INT COMMENT '停用的版本(NULL表示启用中，停用的检查项保留供历史任务解析文本)',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    FOREIGN KEY (template_id) REFERENCES check_templates(id) ON DELETE CASCADE
+) COMMENT='检查项模板明细表';
+CREATE INDEX IF NOT EXISTS idx_template_sort ON check_template_items (template_id, sort_order);
+
+-- ========================================
+-- 3. 任务主表
+-- ========================================
+CREATE TABLE IF NOT EXISTS tasks (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    task_id VARCHAR(50) NOT NULL COMMENT '任务编号',
+    change_content TEXT COMMENT '变更内容',
+    risk VARCHAR(20) COMMENT '风险等级',
+    user_name VARCHAR(100) NOT NULL COMMENT '用户名',
+    month VARCHAR(10) NOT NULL COMMENT '月份(YYYY-MM)',
+    version BIGINT NOT NULL DEFAULT 0 COMMENT '变更版本号(同一用户月份内递增)',
+    check_mask BIGINT COMMENT '检查项完成位图(位图存储模式，NULL表示检查项保存在task_checks)',
+    check_template_version INT COMMENT '位图对应的检查项模板版本',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    UNIQUE KEY uk_task (user_name, month, task_id)
+) COMMENT='任务主表';
+CREATE INDEX IF NOT EXISTS idx_user_month ON tasks (user_name, month);
+CREATE INDEX IF NOT EXISTS idx_user_month_version ON tasks (user_name, month, version);
+CREATE INDEX IF NOT EXISTS idx_task_id ON tasks (task_id);
+CREATE INDEX IF NOT EXISTS idx_created_at ON tasks (created_at);
+
+-- ========================================
+-- 4. 任务文件表
+-- ========================================
+CREATE TABLE IF NOT EXISTS task_files (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    task_id BIGINT NOT NULL COMMENT '任务ID',
+    file_path TEXT COMMENT '文件路径',
+    test_status VARCHAR(100) COMMENT '测试状态',
+    path_id BIGINT COMMENT '路径字典ID(file_paths.id)',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE
+) COMMENT='任务文件表';
+CREATE INDEX IF NOT EXISTS idx_task ON task_files (task_id);
+CREATE INDEX IF NOT EXISTS idx_path_id ON task_files (path_id);
+
+-- ========================================
+-- 5. 任务检查项表
+-- ========================================
+CREATE TABLE IF NOT EXISTS task_checks (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    task_id BIGINT NOT NULL COMMENT '任务ID',
+    template_item_id BIGINT COMMENT '模板检查项ID(check_template_items.id)',
+    done BOOLEAN COMMENT '是否完成(引用模板检查项时使用)',
+    check_item VARCHAR(200) COMMENT '检查项内容(仅自定义检查项)',
+    status VARCHAR(20) COMMENT '状态(完成/未完成，仅自定义检查项)',
+    sort_order INT NOT NULL DEFAULT 0 COMMENT '排序顺序',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE
+) COMMENT='任务检查项表';
+CREATE INDEX IF NOT EXISTS idx_task_sort ON task_checks (task_id, sort_order);
+
+-- ========================================
+-- 6. Git仓库登记表
+-- ========================================
+CREATE TABLE IF NOT EXISTS git_repositories (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL COMMENT '仓库名称',
+    path VARCHAR(500) NOT NULL COMMENT '仓库规范路径',
+    remote_url VARCHAR(500) COMMENT '远程地址',
+    default_branch VARCHAR(100) COMMENT '默认分支',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    UNIQUE KEY uk_path (path)
+) COMMENT='Git仓库登记表';
+
+-- ========================================
+-- 7. 任务墓碑表
+-- ========================================
+CREATE TABLE IF NOT EXISTS task_tombstones (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_name VARCHAR(100) NOT NULL COMMENT '用户名',
+    month VARCHAR(10) NOT NULL COMMENT '月份(YYYY-MM)',
+    task_id VARCHAR(50) NOT NULL COMMENT '任务编号',
+    version BIGINT NOT NULL COMMENT '删除时的版本号',
+    deleted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '删除时间',
+    UNIQUE KEY uk_tombstone (user_name, month, task_id)
+) COMMENT='任务墓碑表';
+CREATE INDEX IF NOT EXISTS idx_tombstone_user_month_version ON task_tombstones (user_name, month, version);
+
+-- ========================================
+-- 8. 文件路径字典表
+-- ========================================
+CREATE TABLE IF NOT EXISTS file_paths (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    path_hash CHAR(32) NOT NULL COMMENT '规范化路径的MD5',
+    path VARCHAR(1000) NOT NULL COMMENT '规范化路径(分隔符统一为/，不含开头的/)',
+    UNIQUE KEY uk_path_hash (path_hash)
+) COMMENT='文件路径字典表';
+CREATE INDEX IF NOT EXISTS idx_path_prefix ON file_paths (path);
+
+-- ========================================
+-- 9. 归档月份表
+-- ========================================
+CREATE TABLE IF NOT EXISTS archived_months (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_name VARCHAR(100) NOT NULL COMMENT '用户名',
+    month VARCHAR(10) NOT NULL COMMENT '月份(YYYY-MM)',
+    version BIGINT NOT NULL DEFAULT 0 COMMENT '归档时的版本号',
+    task_count INT NOT NULL DEFAULT 0 COMMENT '任务数',
+    raw_bytes INT NOT NULL DEFAULT 0 COMMENT '压缩前的JSON字节数',
+    stored_bytes INT NOT NULL DEFAULT 0 COMMENT '压缩后的字节数',
+    payload LONGBLOB NOT NULL COMMENT '任务列表JSON(gzip压缩)',
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '归档时间',
+    UNIQUE KEY uk_archived_month (user_name, month)
+) COMMENT='归档月份表';
+
+-- ========================================
+-- 10. 归档月份文件表
+-- ========================================
+CREATE TABLE IF NOT EXISTS archived_month_paths (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    archive_id BIGINT NOT NULL COMMENT '归档ID',
+    path_id BIGINT NOT NULL COMMENT '路径字典ID(file_paths.id)',
+    FOREIGN KEY (archive_id) REFERENCES archived_months(id) ON DELETE CASCADE
+) COMMENT='归档月份文件表';
+CREATE INDEX IF NOT EXISTS idx_archived_path_id ON archived_month_paths (path_id);
+
+-- ========================================
+-- 11. 任务变更日志表（只追加）
+-- ========================================
+CREATE TABLE IF NOT EXISTS task_change_log (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_name VARCHAR(100) NOT NULL COMMENT '用户名',
+    month VARCHAR(10) NOT NULL COMMENT '月份(YYYY-MM)',
+    version BIGINT NOT NULL COMMENT '保存后的版本号',
+    task_id VARCHAR(50) NOT NULL COMMENT '任务编号',
+    change_type VARCHAR(20) NOT NULL COMMENT '变更类型(created/updated/deleted/snapshot)',
+    operator VARCHAR(100) COMMENT '操作人',
+    client_id VARCHAR(100) COMMENT '发起保存的页面标识',
+    payload MEDIUMTEXT COMMENT '变更后的完整任务JSON(含文件和检查项，删除时为空)',
+    changed_at DATETIME(3) NOT NULL COMMENT '变更时间'
+) COMMENT='任务变更日志表';
+CREATE INDEX IF NOT EXISTS idx_log_user_month_time ON task_change_log (user_name, month, changed_at);
+CREATE INDEX IF NOT EXISTS idx_log_user_month_version ON task_change_log (user_name, month, version);
+
+-- ========================================
+-- 12. 增量加载下限表
+-- ========================================
+CREATE TABLE IF NOT EXISTS task_delta_floors (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_name VARCHAR(100) NOT NULL COMMENT '用户名',
+    month VARCHAR(10) NOT NULL COMMENT '月份(YYYY-MM)',
+    version BIGINT NOT NULL COMMENT '早于该版本的增量加载返回完整列表',
+    UNIQUE KEY uk_delta_floor (user_name, month)
+) COMMENT='增量加载下限表';
+
+-- ========================================
+-- 视图
+-- ========================================
+
+-- 任务统计视图
+CREATE OR REPLACE VIEW v_task_stats AS
+SELECT
+    user_name,
+    month,
+    COUNT(*) as total_tasks,
+    SUM(completed) as completed_checks,
+    COUNT(*) * 9 as total_checks,  -- 假设每个任务有9个检查项
+    ROUND(SUM(completed) * 100.0 / (COUNT(*) * 9), 2) as completion_rate
+FROM (
+    -- 位图存储的任务用 BITCOUNT 计数，按行存储的任务统计 task_checks
+    SELECT
+        t.user_name,
+        t.month,
+        IFNULL(BITCOUNT(t.check_mask), 0)
+            + (SELECT COUNT(*) FROM task_checks tc
+               WHERE tc.task_id = t.id AND (tc.done = TRUE OR tc.status = '完成')) as completed
+    FROM tasks t
+) task_completion
+GROUP BY user_name, month;
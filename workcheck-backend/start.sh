@@ -19,7 +19,8 @@ APP_NAME="workcheck-backend"
 JAR_FILE="target/${APP_NAME}-1.0.0.jar"
 PID_FILE="application.pid"
 LOG_FILE="logs/application.log"
-SPRING_PROFILE="dev"  # dev, prod, test
+SPRING_PROFILE="dev"  # dev, prod, test, embedded, prod,fast
+CDS_ARCHIVE="target/cds/app.jsa"  # mvn -Pcds package 生成的CDS归档
 
 # 打印带颜色的消息
 print_header() {
@@ -83,6 +84,12 @@ check_java() {
 check_database() {
     print_step "检查数据库连接..."
 
+    # 内嵌数据库不依赖 MySQL
+    if [ "$SPRING_PROFILE" = "embedded" ]; then
+        print_info "使用内嵌数据库（H2），数据目录: data/h2"
+        return
+    fi
+
     # 从配置文件读取数据库信息
     DB_CONFIG=$(grep -A 10 "spring.datasource" src/main/resources/application.yml)
     DB_HOST=$(echo "$DB_CONFIG" | grep "url" | sed 's/.*\/\/\([^:]*\):.*/\1/' || echo "localhost")
@@ -134,14 +141,14 @@ clean_build() {
     print_info "清理完成"
 }
 
-# 编译打包
+# 编译打包（参数传给Maven，如 -Pcds）
 build_project() {
     print_step "编译打包项目..."
 
     if command -v mvn &> /dev/null; then
-        mvn clean package -DskipTests
+        mvn clean package -DskipTests "$@"
     else
-        ./mvnw clean package -DskipTests
+        ./mvnw clean package -DskipTests "$@"
     fi
 
     if [ $? -eq 0 ]; then
@@ -193,7 +200,14 @@ start_service() {
     fi
 
     # 启动命令
-    if command -v mvn &> /dev/null; then
+    if [[ "$SPRING_PROFILE" == *fast* ]] && [ -f "$CDS_ARCHIVE" ]; then
+        # 快速启动：使用CDS归档和生成归档时的类路径
+        print_info "使用CDS归档运行: $CDS_ARCHIVE"
+        nohup java $JVM_OPTS -XX:SharedArchiveFile=$CDS_ARCHIVE @target/cds/app.args \
+            -Dspring.profiles.active=$SPRING_PROFILE com.workcheck.WorkCheckApplication \
+            > $LOG_FILE 2>&1 &
+        echo $! > $PID_FILE
+    elif command -v mvn &> /dev/null && [[ "$SPRING_PROFILE" != *fast* ]]; then
         # 使用Maven运行（开发环境推荐）
         print_info "使用Maven运行（开发模式）"
         nohup mvn spring-boot:run -Dspring-boot.run.profiles=$SPRING_PROFILE \
@@ -249,7 +263,7 @@ show_status() {
 
             # 显示内存使用
             MEMORY=$(ps -p $PID -o pid,vsz,rss,pcpu,pmem | tail -1)
-            print_info "内存使用: $(echo $MEMORY | awk '{print $2/1024"MB"} VSZ, $(echo $MEMORY | awk '{print $3/1024"MB"} RSS)'
+            print_info "内存使用: $(echo $MEMORY | awk '{print $2/1024"MB"}') VSZ, $(echo $MEMORY | awk '{print $3/1024"MB"}') RSS"
         else
             print_warn "PID文件存在但进程不存在"
             rm -f $PID_FILE
@@ -317,16 +331,20 @@ show_help() {
     echo "  test      运行测试"
     echo "  dev       开发模式启动（启用调试）"
     echo "  prod      生产模式启动"
+    echo "  embedded  内嵌数据库启动（H2，不需要MySQL）"
+    echo "  fast      快速启动（生产配置 + 懒加载、只校验表结构，JDK 13+ 生成CDS归档）"
     echo "  clean     清理构建缓存"
     echo "  help      显示帮助"
     echo ""
     echo "选项:"
-    echo "  -p, --profile [dev|prod|test]  指定Spring配置文件"
+    echo "  -p, --profile [dev|prod|test|embedded]  指定Spring配置文件"
     echo ""
     echo "示例:"
     echo "  $0 start                # 启动服务"
     echo "  $0 start -p prod        # 生产模式启动"
     echo "  $0 dev                  # 开发模式启动（带调试）"
+    echo "  $0 embedded             # 内嵌数据库启动（本地压测、基准测试）"
+    echo "  $0 fast                 # 快速启动（部署时缩短重启时间）"
     echo "  $0 restart              # 重启服务"
     echo "  $0 logs                 # 查看日志"
 }
@@ -339,7 +357,7 @@ parse_args() {
                 SPRING_PROFILE="$2"
                 shift 2
                 ;;
-            start|stop|restart|status|logs|build|test|dev|prod|clean|help)
+            start|stop|restart|status|logs|build|test|dev|prod|embedded|fast|clean|help)
                 COMMAND="$1"
                 shift
                 ;;
@@ -387,6 +405,27 @@ main() {
             build_project
             start_service
             ;;
+        embedded)
+            SPRING_PROFILE="embedded"
+            check_java
+            create_directories
+            build_project
+            start_service
+            ;;
+        fast)
+            SPRING_PROFILE="prod,fast"
+            check_java
+            check_database
+            create_directories
+            JAVA_MAJOR=$(java -version 2>&1 | head -n 1 | awk -F '"' '{print $2}' | cut -d'.' -f1)
+            if [ "$JAVA_MAJOR" -ge 13 ]; then
+                build_project -Pcds
+            else
+                print_warn "Java $JAVA_MAJOR 不支持生成CDS归档（需要 JDK 13+），只使用 fast 配置"
+                build_project
+            fi
+            start_service
+            ;;
         stop)
             stop_service_command
             ;;